@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import io.gs2.AbstractGs2Client;
+import io.gs2.Gs2Result;
+import io.gs2.model.IGs2Credential;
+
+/**
+ * ベンチマーク用に protected なメソッドを公開するクライアント。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class BenchmarkClient extends AbstractGs2Client<BenchmarkClient> {
+
+	/** サービス名 */
+	public static final String SERVICE = "inventory";
+	/** モジュール名 */
+	public static final String MODULE = "Item";
+	/** ファンクション名 */
+	public static final String FUNCTION = "GetItem";
+
+	public BenchmarkClient(IGs2Credential credential) {
+		super(credential);
+	}
+
+	public HttpGet get(String url) {
+		return createHttpGet(url, credential, SERVICE, MODULE, FUNCTION);
+	}
+
+	public HttpPost post(String url, String body) {
+		return createHttpPost(url, credential, SERVICE, MODULE, FUNCTION, body);
+	}
+
+	public HttpPost post(String url, Object body) {
+		return createHttpPost(url, credential, SERVICE, MODULE, FUNCTION, body);
+	}
+
+	public HttpPut put(String url, String body) {
+		return createHttpPut(url, credential, SERVICE, MODULE, FUNCTION, body);
+	}
+
+	public HttpPut put(String url, Object body) {
+		return createHttpPut(url, credential, SERVICE, MODULE, FUNCTION, body);
+	}
+
+	public HttpDelete delete(String url) {
+		return createHttpDelete(url, credential, SERVICE, MODULE, FUNCTION);
+	}
+
+	public <U> U execute(HttpUriRequest request, Class<U> clazz) {
+		return doRequest(request, clazz);
+	}
+
+	public <U> CompletableFuture<U> executeAsync(HttpUriRequest request, Class<U> clazz) {
+		return doRequestAsync(request, clazz);
+	}
+
+	public <U> Gs2Result<U> executeForResult(HttpUriRequest request, Class<U> clazz) {
+		return doRequestForResult(request, clazz);
+	}
+}
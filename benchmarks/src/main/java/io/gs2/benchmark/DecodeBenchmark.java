@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.gs2.exception.Gs2ClientException;
+import io.gs2.exception.NotFoundException;
+import io.gs2.model.RequestError;
+
+/**
+ * レスポンスの読み込みと例外の生成。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodeBenchmark {
+
+	private ObjectMapper mapper;
+	private ObjectReader reader;
+
+	@Setup
+	public void setup() {
+		mapper = new BenchmarkClient(Fixtures.credential()).getObjectMapper();
+		reader = mapper.readerFor(Fixtures.ItemResult.class);
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult decodeWithMapper() throws IOException {
+		return mapper.readValue(Fixtures.RESPONSE_JSON, Fixtures.ItemResult.class);
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult decodeWithReader() throws IOException {
+		return reader.readValue(Fixtures.RESPONSE_JSON);
+	}
+
+	@Benchmark
+	public Gs2ClientException createException() {
+		return new NotFoundException(Fixtures.ERROR_MESSAGE);
+	}
+
+	@Benchmark
+	public Gs2ClientException createStacklessException() {
+		return new NotFoundException(Fixtures.ERROR_MESSAGE, false);
+	}
+
+	@Benchmark
+	public List<RequestError> createExceptionAndReadErrors() {
+		return new NotFoundException(Fixtures.ERROR_MESSAGE).getErrors();
+	}
+}
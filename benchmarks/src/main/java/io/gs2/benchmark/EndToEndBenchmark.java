@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.gs2.Gs2Result;
+import io.gs2.exception.NotFoundException;
+import io.gs2.http.Gs2HttpClient;
+import io.gs2.transport.LoopbackTransport;
+
+/**
+ * ローカルのHTTPスタブに対する doRequest / doRequestAsync の往復。
+ *
+ * loopback はネットワークを使わないトランスポートで、通信以外のコストだけを測定します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private Gs2HttpClient httpClient;
+	private BenchmarkClient client;
+	private BenchmarkClient loopbackClient;
+	private BenchmarkClient notFoundClient;
+	private String url;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		// ヘッダとボディが別々に書き込まれるため、Nagle アルゴリズムで応答が遅延しないようにする
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			while(exchange.getRequestBody().read() >= 0);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, Fixtures.RESPONSE_JSON.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(Fixtures.RESPONSE_JSON);
+			}
+		});
+		executor = Executors.newFixedThreadPool(8);
+		server.setExecutor(executor);
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/inventory/namespace-0001/user/user-0001/item/item-0001";
+		httpClient = new Gs2HttpClient();
+		client = new BenchmarkClient(Fixtures.credential()).withHttpClient(httpClient);
+		loopbackClient = new BenchmarkClient(Fixtures.credential())
+				.withTransport(new LoopbackTransport(request -> LoopbackTransport.json(200, new String(Fixtures.RESPONSE_JSON, "UTF-8"))));
+		notFoundClient = new BenchmarkClient(Fixtures.credential())
+				.withTransport(new LoopbackTransport(request -> LoopbackTransport.json(404, Fixtures.ERROR_RESPONSE_JSON)));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult doRequestGet() {
+		return client.execute(client.get(url), Fixtures.ItemResult.class);
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult doRequestPost() {
+		return client.execute(client.post(url, new Fixtures.AcquireRequest()), Fixtures.ItemResult.class);
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult doRequestAsyncGet() {
+		return client.executeAsync(client.get(url), Fixtures.ItemResult.class).join();
+	}
+
+	@Benchmark
+	public Fixtures.ItemResult loopbackGet() {
+		return loopbackClient.execute(loopbackClient.get(url), Fixtures.ItemResult.class);
+	}
+
+	@Benchmark
+	public Object loopbackNotFound() {
+		try {
+			return notFoundClient.execute(notFoundClient.get(url), Fixtures.ItemResult.class);
+		} catch (NotFoundException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Gs2Result<Fixtures.ItemResult> loopbackNotFoundResult() {
+		return notFoundClient.executeForResult(notFoundClient.get(url), Fixtures.ItemResult.class);
+	}
+}
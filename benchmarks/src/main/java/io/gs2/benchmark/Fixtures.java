@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import io.gs2.model.BasicGs2Credential;
+
+/**
+ * ベンチマークで共通して使うデータ。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Fixtures {
+
+	/** クライアントシークレット */
+	public static final String CLIENT_SECRET = Base64.getEncoder().encodeToString("benchmark-client-secret".getBytes(StandardCharsets.UTF_8));
+	/** アクセス先URL */
+	public static final String URL = "https://inventory.ap-northeast-1.gs2io.com/inventory/namespace-0001/user/user-0001/item/item-0001";
+	/** リクエストボディ */
+	public static final String REQUEST_JSON = "{\"namespaceName\":\"namespace-0001\",\"inventoryName\":\"item\",\"itemName\":\"item-0001\",\"acquireCount\":10}";
+	/** レスポンスボディ */
+	public static final byte[] RESPONSE_JSON = ("{\"item\":{\"itemSetId\":\"grn:gs2:ap-northeast-1:owner:inventory:namespace-0001:user:user-0001:inventory:item:item:item-0001\","
+			+ "\"inventoryName\":\"item\",\"userId\":\"user-0001\",\"itemName\":\"item-0001\",\"count\":10,\"sortValue\":0,"
+			+ "\"expiresAt\":1700000000000,\"createdAt\":1600000000000,\"updatedAt\":1600000000000},\"items\":[1,2,3,4,5,6,7,8,9,10]}").getBytes(StandardCharsets.UTF_8);
+	/** エラーレスポンスのメッセージ */
+	public static final String ERROR_MESSAGE = "[{\"component\":\"itemName\",\"message\":\"inventory.item.item.error.notFound\"}]";
+	/** NotFound のレスポンスボディ */
+	public static final String ERROR_RESPONSE_JSON = "{\"message\":\"" + ERROR_MESSAGE.replace("\"", "\\\"") + "\"}";
+
+	public static BasicGs2Credential credential() {
+		return new BasicGs2Credential("benchmark-client-id", CLIENT_SECRET);
+	}
+
+	/**
+	 * リクエストボディ
+	 */
+	public static class AcquireRequest {
+		public String namespaceName = "namespace-0001";
+		public String inventoryName = "item";
+		public String itemName = "item-0001";
+		public long acquireCount = 10;
+		public List<String> tags = new ArrayList<>();
+	}
+
+	/**
+	 * レスポンスボディ
+	 */
+	public static class ItemResult {
+		public Item item;
+		public List<Integer> items;
+	}
+
+	/**
+	 * アイテム
+	 */
+	public static class Item {
+		public String itemSetId;
+		public String inventoryName;
+		public String userId;
+		public String itemName;
+		public long count;
+		public long sortValue;
+		public long expiresAt;
+		public long createdAt;
+		public long updatedAt;
+	}
+}
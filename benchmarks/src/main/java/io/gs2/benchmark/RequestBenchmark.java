@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * リクエストの組み立て(URLの解決、ボディのシリアライズ準備、署名)。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestBenchmark {
+
+	private BenchmarkClient client;
+	private Fixtures.AcquireRequest body;
+
+	@Setup
+	public void setup() {
+		client = new BenchmarkClient(Fixtures.credential());
+		body = new Fixtures.AcquireRequest();
+	}
+
+	@Benchmark
+	public HttpGet createHttpGet() {
+		return client.get(Fixtures.URL);
+	}
+
+	@Benchmark
+	public HttpPost createHttpPostString() {
+		return client.post(Fixtures.URL, Fixtures.REQUEST_JSON);
+	}
+
+	@Benchmark
+	public HttpPost createHttpPostObject() {
+		return client.post(Fixtures.URL, body);
+	}
+
+	@Benchmark
+	public HttpPut createHttpPutString() {
+		return client.put(Fixtures.URL, Fixtures.REQUEST_JSON);
+	}
+
+	@Benchmark
+	public HttpPut createHttpPutObject() {
+		return client.put(Fixtures.URL, body);
+	}
+
+	@Benchmark
+	public HttpDelete createHttpDelete() {
+		return client.delete(Fixtures.URL);
+	}
+}
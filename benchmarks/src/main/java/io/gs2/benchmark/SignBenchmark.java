@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.gs2.model.BasicGs2Credential;
+import io.gs2.util.RequestSigner;
+import io.gs2.util.SignUtil;
+
+/**
+ * 署名の生成。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SignBenchmark {
+
+	private RequestSigner signer;
+	private BasicGs2Credential credential;
+	private long timestamp;
+
+	@Setup
+	public void setup() {
+		signer = new RequestSigner(Fixtures.CLIENT_SECRET);
+		credential = Fixtures.credential();
+		timestamp = System.currentTimeMillis() / 1000;
+	}
+
+	@Benchmark
+	public byte[] signUtil() {
+		return SignUtil.sign(Fixtures.CLIENT_SECRET, BenchmarkClient.MODULE, BenchmarkClient.FUNCTION, timestamp);
+	}
+
+	@Benchmark
+	public String requestSigner() {
+		return signer.sign(BenchmarkClient.MODULE, BenchmarkClient.FUNCTION, timestamp);
+	}
+
+	@Benchmark
+	public HttpGet authorized() {
+		HttpGet request = new HttpGet(Fixtures.URL);
+		credential.authorized(request, BenchmarkClient.SERVICE, BenchmarkClient.MODULE, BenchmarkClient.FUNCTION, System.currentTimeMillis() / 1000);
+		return request;
+	}
+}
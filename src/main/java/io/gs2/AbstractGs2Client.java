@@ -15,46 +15,128 @@
  */
 package io.gs2;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.TextNode;
 
 import io.gs2.exception.BadGatewayException;
 import io.gs2.exception.BadRequestException;
+import io.gs2.exception.CircuitBreakerOpenException;
+import io.gs2.exception.ConcurrencyLimitExceededException;
 import io.gs2.exception.ConflictException;
+import io.gs2.exception.Gs2ClientException;
 import io.gs2.exception.InternalServerErrorException;
 import io.gs2.exception.NotFoundException;
 import io.gs2.exception.QuotaExceedException;
+import io.gs2.exception.RateLimitExceededException;
 import io.gs2.exception.RequestTimeoutException;
 import io.gs2.exception.ServiceUnavailableException;
 import io.gs2.exception.UnauthorizedException;
+import io.gs2.http.Gs2EndpointRegistry;
+import io.gs2.http.Gs2HttpClient;
+import io.gs2.http.Gs2HttpDelete;
+import io.gs2.http.Gs2HttpGet;
+import io.gs2.http.Gs2HttpPost;
+import io.gs2.http.Gs2HttpPut;
+import io.gs2.http.Gs2JsonEntity;
+import io.gs2.http.Gs2RequestTarget;
+import io.gs2.http.Gs2ResponseCache;
+import io.gs2.http.Gs2ResponseCache.Entry;
+import io.gs2.metrics.Gs2CallEvent;
+import io.gs2.metrics.Gs2MetricsListener;
+import io.gs2.metrics.Gs2Timing;
+import io.gs2.metrics.Gs2Timing.Phase;
 import io.gs2.model.IGs2Credential;
 import io.gs2.model.Region;
+import io.gs2.paging.Gs2Paginator;
+import io.gs2.policy.CircuitBreaker;
+import io.gs2.policy.CircuitBreaker.Circuit;
+import io.gs2.policy.CircuitBreaker.Permit;
+import io.gs2.policy.ConcurrencyLimiter;
+import io.gs2.policy.ConcurrencyLimiter.Limit;
+import io.gs2.policy.DefaultRetryPolicy;
+import io.gs2.policy.HedgingPolicy;
+import io.gs2.policy.RateLimiter;
+import io.gs2.policy.RequestCoalescer;
+import io.gs2.policy.RetryPolicy;
+import io.gs2.transport.Transport;
+import io.gs2.transport.TransportHttpClient;
+import io.gs2.util.SchedulerUtil;
+import io.gs2.util.VirtualThreadUtil;
 
-abstract public class AbstractGs2Client<T extends AbstractGs2Client<?>> {
+abstract public class AbstractGs2Client<T extends AbstractGs2Client<?>> implements Closeable {
 
 	/** 認証情報 */
 	protected IGs2Credential credential;
 	/** アクセス先リージョン */
 	protected Region region;
+	/** HTTPクライアント */
+	protected Gs2HttpClient httpClient = Gs2HttpClient.getDefault();
+	/** APIエンドポイント */
+	protected Gs2EndpointRegistry endpointRegistry = Gs2EndpointRegistry.getDefault();
+	/** リトライポリシー */
+	protected RetryPolicy retryPolicy = new DefaultRetryPolicy();
+	/** サーキットブレーカー */
+	protected CircuitBreaker circuitBreaker;
+	/** レート制限 */
+	protected RateLimiter rateLimiter;
+	/** 同時実行数の制限 */
+	protected ConcurrencyLimiter concurrencyLimiter;
+	/** GETリクエストのヘッジ */
+	protected HedgingPolicy hedgingPolicy;
+	/** 同一のGETリクエストの集約 */
+	protected RequestCoalescer requestCoalescer;
+	/** GETリクエストのレスポンスキャッシュ */
+	protected Gs2ResponseCache responseCache;
+	/** 計測結果のリスナー */
+	protected Gs2MetricsListener metricsListener;
+	/** フェーズごとの所要時間を記録するか */
+	protected boolean timingEnabled;
+	/** 非同期リクエストを実行するエグゼキュータ */
+	protected Executor executor;
+	/** 想定されたエラー(4xx)の例外でスタックトレースを省略するか */
+	protected boolean stacklessExceptions;
+	/** JSONのシリアライザ/デシリアライザ */
+	protected ObjectMapper objectMapper = new ObjectMapper();
+	/** リクエストボディのシリアライザ */
+	private ObjectWriter writer = createWriter(objectMapper);
+	/** レスポンスのクラスごとのデシリアライザ */
+	private final ConcurrentHashMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
 
 	public AbstractGs2Client(IGs2Credential credential) {
 		this.credential = credential;
@@ -101,6 +183,589 @@ abstract public class AbstractGs2Client<T extends AbstractGs2Client<?>> {
 		return (T)this;
 	}
 
+	/**
+	 * HTTPクライアントを取得
+	 * 
+	 * @return HTTPクライアント
+	 */
+	public Gs2HttpClient getHttpClient() {
+		return httpClient;
+	}
+	
+	/**
+	 * HTTPクライアントを設定
+	 * 未設定の場合はプロセス内で共有されるHTTPクライアントを利用します。
+	 * 
+	 * @param httpClient HTTPクライアント
+	 */
+	public void setHttpClient(Gs2HttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+	
+	/**
+	 * HTTPクライアントを設定
+	 * 未設定の場合はプロセス内で共有されるHTTPクライアントを利用します。
+	 * 
+	 * @param httpClient HTTPクライアント
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withHttpClient(Gs2HttpClient httpClient) {
+		setHttpClient(httpClient);
+		return (T)this;
+	}
+
+	/**
+	 * トランスポートを取得
+	 * 
+	 * @return トランスポート。HTTPクライアントで直接通信している場合は null
+	 */
+	public Transport getTransport() {
+		return httpClient instanceof TransportHttpClient ? ((TransportHttpClient)httpClient).getTransport() : null;
+	}
+	
+	/**
+	 * トランスポートを設定
+	 * 署名、リトライ、レスポンスの読み込みはそのままに、通信だけを指定したトランスポートで行います。
+	 * 
+	 * @param transport トランスポート
+	 */
+	public void setTransport(Transport transport) {
+		setHttpClient(new TransportHttpClient(transport));
+	}
+	
+	/**
+	 * トランスポートを設定
+	 * 署名、リトライ、レスポンスの読み込みはそのままに、通信だけを指定したトランスポートで行います。
+	 * 
+	 * @param transport トランスポート
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withTransport(Transport transport) {
+		setTransport(transport);
+		return (T)this;
+	}
+
+	/**
+	 * APIエンドポイントを取得
+	 * 
+	 * @return APIエンドポイント
+	 */
+	public Gs2EndpointRegistry getEndpointRegistry() {
+		return endpointRegistry;
+	}
+	
+	/**
+	 * APIエンドポイントを設定
+	 * 未設定の場合はプロセス内で共有されるAPIエンドポイントを利用します。
+	 * 
+	 * @param endpointRegistry APIエンドポイント
+	 */
+	public void setEndpointRegistry(Gs2EndpointRegistry endpointRegistry) {
+		this.endpointRegistry = endpointRegistry;
+	}
+	
+	/**
+	 * APIエンドポイントを設定
+	 * 未設定の場合はプロセス内で共有されるAPIエンドポイントを利用します。
+	 * 
+	 * @param endpointRegistry APIエンドポイント
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withEndpointRegistry(Gs2EndpointRegistry endpointRegistry) {
+		setEndpointRegistry(endpointRegistry);
+		return (T)this;
+	}
+
+	/**
+	 * リトライポリシーを取得
+	 * 
+	 * @return リトライポリシー
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+	
+	/**
+	 * リトライポリシーを設定
+	 * 
+	 * @param retryPolicy リトライポリシー
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+	
+	/**
+	 * リトライポリシーを設定
+	 * 
+	 * @param retryPolicy リトライポリシー
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withRetryPolicy(RetryPolicy retryPolicy) {
+		setRetryPolicy(retryPolicy);
+		return (T)this;
+	}
+
+	/**
+	 * サーキットブレーカーを取得
+	 * 
+	 * @return サーキットブレーカー
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+	
+	/**
+	 * サーキットブレーカーを設定
+	 * 未設定の場合はサーキットブレーカーを利用しません。
+	 * 
+	 * @param circuitBreaker サーキットブレーカー
+	 */
+	public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+	
+	/**
+	 * サーキットブレーカーを設定
+	 * 未設定の場合はサーキットブレーカーを利用しません。
+	 * 
+	 * @param circuitBreaker サーキットブレーカー
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withCircuitBreaker(CircuitBreaker circuitBreaker) {
+		setCircuitBreaker(circuitBreaker);
+		return (T)this;
+	}
+
+	/**
+	 * レート制限を取得
+	 * 
+	 * @return レート制限
+	 */
+	public RateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+	
+	/**
+	 * レート制限を設定
+	 * 未設定の場合は送信レートを制限しません。
+	 * 
+	 * @param rateLimiter レート制限
+	 */
+	public void setRateLimiter(RateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+	
+	/**
+	 * レート制限を設定
+	 * 未設定の場合は送信レートを制限しません。
+	 * 
+	 * @param rateLimiter レート制限
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withRateLimiter(RateLimiter rateLimiter) {
+		setRateLimiter(rateLimiter);
+		return (T)this;
+	}
+
+	/**
+	 * 同時実行数の制限を取得
+	 * 
+	 * @return 同時実行数の制限
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter() {
+		return concurrencyLimiter;
+	}
+	
+	/**
+	 * 同時実行数の制限を設定
+	 * 未設定の場合は同時実行数を制限しません。
+	 * 
+	 * @param concurrencyLimiter 同時実行数の制限
+	 */
+	public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
+	
+	/**
+	 * 同時実行数の制限を設定
+	 * 未設定の場合は同時実行数を制限しません。
+	 * 
+	 * @param concurrencyLimiter 同時実行数の制限
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+		setConcurrencyLimiter(concurrencyLimiter);
+		return (T)this;
+	}
+
+	/**
+	 * GETリクエストのヘッジを取得
+	 * 
+	 * @return GETリクエストのヘッジ
+	 */
+	public HedgingPolicy getHedgingPolicy() {
+		return hedgingPolicy;
+	}
+	
+	/**
+	 * GETリクエストのヘッジを設定
+	 * 未設定の場合はヘッジリクエストを送信しません。
+	 * 
+	 * @param hedgingPolicy GETリクエストのヘッジ
+	 */
+	public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+	}
+	
+	/**
+	 * GETリクエストのヘッジを設定
+	 * 未設定の場合はヘッジリクエストを送信しません。
+	 * 
+	 * @param hedgingPolicy GETリクエストのヘッジ
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		setHedgingPolicy(hedgingPolicy);
+		return (T)this;
+	}
+
+	/**
+	 * 同一のGETリクエストの集約を取得
+	 * 
+	 * @return 同一のGETリクエストの集約
+	 */
+	public RequestCoalescer getRequestCoalescer() {
+		return requestCoalescer;
+	}
+	
+	/**
+	 * 同一のGETリクエストの集約を設定
+	 * 未設定の場合は同じリクエストが同時に実行されてもそれぞれ送信します。
+	 * 
+	 * @param requestCoalescer 同一のGETリクエストの集約
+	 */
+	public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+		this.requestCoalescer = requestCoalescer;
+	}
+	
+	/**
+	 * 同一のGETリクエストの集約を設定
+	 * 未設定の場合は同じリクエストが同時に実行されてもそれぞれ送信します。
+	 * 
+	 * @param requestCoalescer 同一のGETリクエストの集約
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withRequestCoalescer(RequestCoalescer requestCoalescer) {
+		setRequestCoalescer(requestCoalescer);
+		return (T)this;
+	}
+
+	/**
+	 * GETリクエストのレスポンスキャッシュを取得
+	 * 
+	 * @return GETリクエストのレスポンスキャッシュ
+	 */
+	public Gs2ResponseCache getResponseCache() {
+		return responseCache;
+	}
+	
+	/**
+	 * GETリクエストのレスポンスキャッシュを設定
+	 * 未設定の場合はレスポンスをキャッシュしません。
+	 * 
+	 * @param responseCache GETリクエストのレスポンスキャッシュ
+	 */
+	public void setResponseCache(Gs2ResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+	
+	/**
+	 * GETリクエストのレスポンスキャッシュを設定
+	 * 未設定の場合はレスポンスをキャッシュしません。
+	 * 
+	 * @param responseCache GETリクエストのレスポンスキャッシュ
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withResponseCache(Gs2ResponseCache responseCache) {
+		setResponseCache(responseCache);
+		return (T)this;
+	}
+
+	/**
+	 * 計測結果のリスナーを取得
+	 * 
+	 * @return 計測結果のリスナー
+	 */
+	public Gs2MetricsListener getMetricsListener() {
+		return metricsListener;
+	}
+	
+	/**
+	 * 計測結果のリスナーを設定
+	 * 未設定の場合は計測を行いません。
+	 * 
+	 * @param metricsListener 計測結果のリスナー
+	 */
+	public void setMetricsListener(Gs2MetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+	
+	/**
+	 * 計測結果のリスナーを設定
+	 * 未設定の場合は計測を行いません。
+	 * 
+	 * @param metricsListener 計測結果のリスナー
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withMetricsListener(Gs2MetricsListener metricsListener) {
+		setMetricsListener(metricsListener);
+		return (T)this;
+	}
+
+	/**
+	 * フェーズごとの所要時間を記録するかを取得
+	 * 
+	 * @return フェーズごとの所要時間を記録するか
+	 */
+	public boolean isTimingEnabled() {
+		return timingEnabled;
+	}
+	
+	/**
+	 * フェーズごとの所要時間を記録するかを設定
+	 * 記録した所要時間は {@link Gs2ClientException#getTiming()} から参照できます。
+	 * 計測結果のリスナーを設定した場合は常に記録します。
+	 * 
+	 * @param timingEnabled フェーズごとの所要時間を記録するか
+	 */
+	public void setTimingEnabled(boolean timingEnabled) {
+		this.timingEnabled = timingEnabled;
+	}
+	
+	/**
+	 * フェーズごとの所要時間を記録するかを設定
+	 * 記録した所要時間は {@link Gs2ClientException#getTiming()} から参照できます。
+	 * 計測結果のリスナーを設定した場合は常に記録します。
+	 * 
+	 * @param timingEnabled フェーズごとの所要時間を記録するか
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withTimingEnabled(boolean timingEnabled) {
+		setTimingEnabled(timingEnabled);
+		return (T)this;
+	}
+
+	/**
+	 * 非同期リクエストを実行するエグゼキュータを取得
+	 * 
+	 * @return 非同期リクエストを実行するエグゼキュータ
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+	
+	/**
+	 * 非同期リクエストを実行するエグゼキュータを設定
+	 * 設定した場合、非同期リクエストはエグゼキュータ上で同期リクエストとして実行されます。
+	 * 未設定の場合はノンブロッキングI/Oで通信します。
+	 * 
+	 * @param executor 非同期リクエストを実行するエグゼキュータ
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
+	/**
+	 * 非同期リクエストを実行するエグゼキュータを設定
+	 * 設定した場合、非同期リクエストはエグゼキュータ上で同期リクエストとして実行されます。
+	 * 未設定の場合はノンブロッキングI/Oで通信します。
+	 * 
+	 * @param executor 非同期リクエストを実行するエグゼキュータ
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withExecutor(Executor executor) {
+		setExecutor(executor);
+		return (T)this;
+	}
+
+	/**
+	 * 仮想スレッドで実行するように設定
+	 * 非同期リクエストは1リクエストごとに仮想スレッドで実行し、プロセス内で共有されるHTTPクライアントを利用している場合は
+	 * キャリアスレッドを固定しない java.net.http のクライアントに差し替えます。
+	 * {@link #setHttpClient(Gs2HttpClient)} で設定したHTTPクライアントは差し替えません。
+	 * 仮想スレッドを利用できない環境では、共有のスレッドプールで実行し、HTTPクライアントは差し替えません。
+	 * 
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withVirtualThreads() {
+		setExecutor(VirtualThreadUtil.getExecutor());
+		if(VirtualThreadUtil.isSupported() && httpClient == Gs2HttpClient.getDefault()) {
+			setHttpClient(VirtualThreadUtil.newHttpClient());
+		}
+		return (T)this;
+	}
+
+	/**
+	 * 想定されたエラー(4xx)の例外でスタックトレースを省略するかを取得
+	 * 
+	 * @return スタックトレースを省略するか
+	 */
+	public boolean isStacklessExceptions() {
+		return stacklessExceptions;
+	}
+	
+	/**
+	 * 想定されたエラー(4xx)の例外でスタックトレースを省略するかを設定
+	 * {@link BadRequestException}, {@link UnauthorizedException}, {@link QuotaExceedException},
+	 * {@link NotFoundException}, {@link ConflictException} がスタックトレースを記録しなくなります。
+	 * 制御フローとして頻繁に発生するエラーの生成コストを抑える場合に利用してください。
+	 * 
+	 * @param stacklessExceptions スタックトレースを省略するか
+	 */
+	public void setStacklessExceptions(boolean stacklessExceptions) {
+		this.stacklessExceptions = stacklessExceptions;
+	}
+	
+	/**
+	 * 想定されたエラー(4xx)の例外でスタックトレースを省略するかを設定
+	 * {@link BadRequestException}, {@link UnauthorizedException}, {@link QuotaExceedException},
+	 * {@link NotFoundException}, {@link ConflictException} がスタックトレースを記録しなくなります。
+	 * 制御フローとして頻繁に発生するエラーの生成コストを抑える場合に利用してください。
+	 * 
+	 * @param stacklessExceptions スタックトレースを省略するか
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withStacklessExceptions(boolean stacklessExceptions) {
+		setStacklessExceptions(stacklessExceptions);
+		return (T)this;
+	}
+
+	/**
+	 * JSONのシリアライザ/デシリアライザを取得
+	 * 
+	 * @return JSONのシリアライザ/デシリアライザ
+	 */
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+	
+	/**
+	 * JSONのシリアライザ/デシリアライザを設定
+	 * 設定後に ObjectMapper の設定を変更しても反映されない場合があります。
+	 * 
+	 * @param objectMapper JSONのシリアライザ/デシリアライザ
+	 */
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		this.writer = createWriter(objectMapper);
+		readers.clear();
+	}
+	
+	/**
+	 * JSONのシリアライザ/デシリアライザを設定
+	 * 設定後に ObjectMapper の設定を変更しても反映されない場合があります。
+	 * 
+	 * @param objectMapper JSONのシリアライザ/デシリアライザ
+	 * @return this
+	 */
+	@SuppressWarnings("unchecked")
+	public T withObjectMapper(ObjectMapper objectMapper) {
+		setObjectMapper(objectMapper);
+		return (T)this;
+	}
+
+	/**
+	 * 設定したHTTPクライアントのコネクションプールを解放する。
+	 * プロセス内で共有されるHTTPクライアントは解放されません。
+	 */
+	@Override
+	public void close() throws IOException {
+		if(httpClient != Gs2HttpClient.getDefault()) {
+			httpClient.close();
+		}
+	}
+
+	/**
+	 * アクセス先URLを解決する
+	 * 
+	 * {@link Gs2Constant#ENDPOINT_HOST} で始まるURLは、展開済みのエンドポイントにパスを連結します。
+	 * 
+	 * @param url アクセス先URL
+	 * @param service アクセス先サービス
+	 * @return アクセス先URL
+	 */
+	protected String resolveUrl(String url, String service) {
+		if(url.startsWith(Gs2Constant.ENDPOINT_HOST)) {
+			String endpoint = endpointRegistry.resolve(service, region);
+			int offset = Gs2Constant.ENDPOINT_HOST.length();
+			return new StringBuilder(endpoint.length() + url.length() - offset)
+					.append(endpoint)
+					.append(url, offset, url.length())
+					.toString();
+		}
+		url = StringUtils.replace(url, "{service}", service);
+		return StringUtils.replace(url, "{region}", region.getName());
+	}
+
+	/**
+	 * POSTリクエストを生成
+	 * 
+	 * @param url アクセス先URL
+	 * @param credential 認証情報
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @param body リクエストボディ
+	 * @return リクエストオブジェクト
+	 */
+	protected HttpPost createHttpPost(String url, IGs2Credential credential, String service, String module, String function, String body) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpPost post = new Gs2HttpPost(url, new Gs2RequestTarget(service, module, function));
+		post.setHeader("Content-Type", "application/json");
+		credential.authorized(post, service, module, function, timestamp);
+		post.setEntity(new StringEntity(body, "UTF-8"));
+		return post;
+	}
+
+	/**
+	 * POSTリクエストを生成
+	 * 
+	 * リクエストボディは送信時に出力ストリームへ直接シリアライズされます。
+	 * 
+	 * @param url アクセス先URL
+	 * @param credential 認証情報
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @param body リクエストボディとしてシリアライズするオブジェクト
+	 * @return リクエストオブジェクト
+	 */
+	protected HttpPost createHttpPost(String url, IGs2Credential credential, String service, String module, String function, Object body) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpPost post = new Gs2HttpPost(url, new Gs2RequestTarget(service, module, function));
+		post.setHeader("Content-Type", "application/json");
+		credential.authorized(post, service, module, function, timestamp);
+		post.setEntity(new Gs2JsonEntity(writer, body));
+		return post;
+	}
+
 	/**
 	 * POSTリクエストを生成
 	 * 
@@ -112,160 +777,1121 @@ abstract public class AbstractGs2Client<T extends AbstractGs2Client<?>> {
 	 * @param body リクエストボディ
 	 * @return リクエストオブジェクト
 	 */
-	protected HttpPost createHttpPost(String url, IGs2Credential credential, String service, String module, String function, String body) {
-		Long timestamp = System.currentTimeMillis()/1000;
-		url = StringUtils.replace(url, "{service}", service);
-		url = StringUtils.replace(url, "{region}", region.getName());
-		HttpPost post = new HttpPost(url);
-		post.setHeader("Content-Type", "application/json");
-		credential.authorized(post, service, module, function, timestamp);
-		post.setEntity(new StringEntity(body, "UTF-8"));
-		return post;
+	protected HttpPut createHttpPut(String url, IGs2Credential credential, String service, String module, String function, String body) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpPut put = new Gs2HttpPut(url, new Gs2RequestTarget(service, module, function));
+		put.setHeader("Content-Type", "application/json");
+		credential.authorized(put, service, module, function, timestamp);
+		put.setEntity(new StringEntity(body, "UTF-8"));
+		return put;
+	}
+
+	/**
+	 * PUTリクエストを生成
+	 * 
+	 * リクエストボディは送信時に出力ストリームへ直接シリアライズされます。
+	 * 
+	 * @param url アクセス先URL
+	 * @param credential 認証情報
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @param body リクエストボディとしてシリアライズするオブジェクト
+	 * @return リクエストオブジェクト
+	 */
+	protected HttpPut createHttpPut(String url, IGs2Credential credential, String service, String module, String function, Object body) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpPut put = new Gs2HttpPut(url, new Gs2RequestTarget(service, module, function));
+		put.setHeader("Content-Type", "application/json");
+		credential.authorized(put, service, module, function, timestamp);
+		put.setEntity(new Gs2JsonEntity(writer, body));
+		return put;
+	}
+
+	/**
+	 * GETリクエストを生成
+	 * 
+	 * @param url アクセス先URL
+	 * @param credential 認証情報
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @return リクエストオブジェクト
+	 */
+	protected HttpGet createHttpGet(String url, IGs2Credential credential, String service, String module, String function) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpGet get = new Gs2HttpGet(url, new Gs2RequestTarget(service, module, function));
+		get.setHeader("Content-Type", "application/json");
+		credential.authorized(get, service, module, function, timestamp);
+		return get;
+	}
+
+	/**
+	 * DELETEリクエストを生成
+	 * 
+	 * @param url アクセス先URL
+	 * @param credential 認証情報
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @return リクエストオブジェクト
+	 */
+	protected HttpDelete createHttpDelete(String url, IGs2Credential credential, String service, String module, String function) {
+		Long timestamp = System.currentTimeMillis()/1000;
+		url = resolveUrl(url, service);
+		HttpDelete delete = new Gs2HttpDelete(url, new Gs2RequestTarget(service, module, function));
+		delete.setHeader("Content-Type", "application/json");
+		credential.authorized(delete, service, module, function, timestamp);
+		return delete;
+	}
+
+	/**
+	 * リクエストを実行する
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @return レスポンス
+	 * @throws BadRequestException リクエストパラメータに誤りがある場合にスローされます
+	 * @throws UnauthorizedException 認証に失敗した場合にスローされます
+	 * @throws NotFoundException リソースが存在しない場合にスローされます
+	 * @throws InternalServerErrorException 未知のサーバエラーが発生した場合にスローされます
+	 */
+	protected <U> U doRequest(HttpUriRequest request, Class<U> clazz) throws BadRequestException, UnauthorizedException, NotFoundException, InternalServerErrorException {
+		Gs2Result<U> result = doRequestForResult(request, clazz);
+		if(result.isSuccess()) {
+			return result.getValue();
+		}
+		if(result.getException() instanceof Error) {
+			throw (Error)result.getException();
+		}
+		throw createException(result);
+	}
+
+	/**
+	 * リクエストを実行し、結果を返す
+	 * 
+	 * ステータスコードで失敗した場合も例外をスローせず、例外も生成しません。
+	 * 通信エラーやレート制限などで失敗した場合は、スローする代わりに {@link Gs2Result#getException()} で返します。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @return 結果
+	 */
+	protected <U> Gs2Result<U> doRequestForResult(HttpUriRequest request, Class<U> clazz) {
+		Call<U> call = newCall(request, clazz);
+		Attempt<U> cached = readCache(call);
+		if(cached != null) {
+			return complete(call, createResult(call, cached, true));
+		}
+		RequestCoalescer requestCoalescer = this.requestCoalescer;
+		if(requestCoalescer != null && requestCoalescer.isCoalescible(request)) {
+			return complete(call, requestCoalescer.execute(request, clazz, () -> doRequestForResult(call)), true);
+		}
+		return doRequestForResult(call);
+	}
+
+	private <U> Gs2Result<U> doRequestForResult(Call<U> call) {
+		Gs2Result<U> result;
+		try {
+			result = send(call);
+		} catch (RuntimeException e) {
+			result = createResult(call, e);
+		}
+		return complete(call, result);
+	}
+
+	/**
+	 * リクエストを送信し、必要に応じてリトライする
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @return 結果
+	 */
+	private <U> Gs2Result<U> send(Call<U> call) {
+		HttpUriRequest request = call.request;
+		retryPolicy.onRequest(request);
+		Attempt<U> attempt;
+		while(true) {
+			begin(call);
+			throttle(call);
+			admit(call);
+			IOException exception = null;
+			call.startedAt = System.nanoTime();
+			if(call.timingAttempt != null) {
+				call.timingAttempt.add(Phase.QUEUE, call.startedAt - call.queuedAt);
+			}
+			try {
+				attempt = execute(call);
+			} catch (IOException e) {
+				exception = e;
+				attempt = null;
+			} catch (RuntimeException e) {
+				// 試行中の回路を半開状態のまま残さないよう、送信できなかった場合も失敗として記録する
+				record(call, null, e);
+				throw e;
+			}
+			record(call, attempt, exception);
+			if(attempt != null && attempt.success) {
+				return createResult(call, attempt, false);
+			}
+			long delay = retryPolicy.getRetryDelay(request, attempt == null ? 0 : attempt.statusCode, exception, call.retryCount);
+			if(delay < 0 || !sleep(call, delay)) {
+				if(attempt == null) {
+					if(!(exception instanceof SocketTimeoutException)) {
+						return createResult(call, new RuntimeException(exception));
+					}
+					attempt = Attempt.timeout();
+				}
+				break;
+			}
+			call.retryCount++;
+		}
+		return createResult(call, attempt, false);
+	}
+
+	/**
+	 * リクエストを非同期に実行する
+	 * 
+	 * リトライの待機中はスレッドを占有しません。
+	 * エラーは {@link #doRequest(HttpUriRequest, Class)} と同じ例外で Future に通知されます。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @return レスポンス
+	 */
+	protected <U> CompletableFuture<U> doRequestAsync(HttpUriRequest request, Class<U> clazz) {
+		CompletableFuture<Gs2Result<U>> execution = doRequestForResultAsync(request, clazz);
+		CompletableFuture<U> future = new CompletableFuture<>();
+		execution.whenComplete((result, e) -> {
+			if(e != null) {
+				future.completeExceptionally(e);
+			} else if(result.isSuccess()) {
+				future.complete(result.getValue());
+			} else if(result.getException() instanceof Error) {
+				future.completeExceptionally(result.getException());
+			} else {
+				future.completeExceptionally(createException(result));
+			}
+		});
+		future.whenComplete((value, e) -> {
+			if(future.isCancelled()) {
+				execution.cancel(false);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * リクエストを非同期に実行し、結果を返す
+	 * 
+	 * リトライの待機中はスレッドを占有しません。
+	 * 失敗した場合も Future は例外で完了せず、{@link #doRequestForResult(HttpUriRequest, Class)} と同じ結果を返します。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @return 結果
+	 */
+	protected <U> CompletableFuture<Gs2Result<U>> doRequestForResultAsync(HttpUriRequest request, Class<U> clazz) {
+		Executor executor = this.executor;
+		if(executor != null) {
+			return doRequestForResultAsync(request, clazz, executor);
+		}
+		Call<U> call = newCall(request, clazz);
+		Attempt<U> cached = readCache(call);
+		if(cached != null) {
+			return CompletableFuture.completedFuture(complete(call, createResult(call, cached, true)));
+		}
+		RequestCoalescer requestCoalescer = this.requestCoalescer;
+		if(requestCoalescer != null && requestCoalescer.isCoalescible(request)) {
+			CompletableFuture<Gs2Result<U>> execution = requestCoalescer.executeAsync(request, clazz, () -> doRequestForResultAsync(call));
+			CompletableFuture<Gs2Result<U>> future = new CompletableFuture<>();
+			execution.whenComplete((result, e) -> {
+				if(e != null) {
+					complete(call, createResult(call, e), true);
+					future.completeExceptionally(e);
+				} else {
+					future.complete(complete(call, result, true));
+				}
+			});
+			return future;
+		}
+		return doRequestForResultAsync(call);
+	}
+
+	/**
+	 * エグゼキュータ上で同期リクエストを実行する
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @param executor エグゼキュータ
+	 * @return 結果
+	 */
+	private <U> CompletableFuture<Gs2Result<U>> doRequestForResultAsync(HttpUriRequest request, Class<U> clazz, Executor executor) {
+		CompletableFuture<Gs2Result<U>> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				if(future.isDone()) {
+					return;
+				}
+				try {
+					future.complete(doRequestForResult(request, clazz));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * ページトークンで分割された一覧を取得する
+	 * 
+	 * 各ページは {@link #doRequestAsync(HttpUriRequest, Class)} で取得し、
+	 * 呼び出し側が現在のページを処理している間に次のページを先読みします。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param <E> 要素の型
+	 * @param request ページトークンからリクエストを作成する関数。最初のページのページトークンは null
+	 * @param clazz レスポンスのクラス
+	 * @param items レスポンスから要素を取り出す関数
+	 * @param nextPageToken レスポンスから次のページのトークンを取り出す関数
+	 * @return 一覧
+	 */
+	protected <U, E> Gs2Paginator<E> doPaginatedRequest(Function<String, HttpUriRequest> request, Class<U> clazz, Function<U, List<E>> items, Function<U, String> nextPageToken) {
+		return new Gs2Paginator<>(pageToken -> doRequestAsync(request.apply(pageToken), clazz)
+				.thenApply(result -> new Gs2Paginator.Page<>(items.apply(result), nextPageToken.apply(result))));
+	}
+
+	private <U> CompletableFuture<Gs2Result<U>> doRequestForResultAsync(Call<U> call) {
+		retryPolicy.onRequest(call.request);
+		CompletableFuture<Gs2Result<U>> future = new CompletableFuture<>();
+		if(call.listener != null || call.timing != null) {
+			future.whenComplete((result, e) -> {
+				if(future.isCancelled()) {
+					complete(call, createResult(call, e));
+				}
+			});
+		}
+		doRequestAsync(call, future);
+		return future;
+	}
+
+	private <U> void doRequestAsync(Call<U> call, CompletableFuture<Gs2Result<U>> future) {
+		begin(call);
+		long wait = reserve(call);
+		if(wait < 0) {
+			finish(call, future, createResult(call, new RateLimitExceededException("rate limit exceeded: " + call.target.getService())));
+		} else if(wait > 0) {
+			schedule(call, future, () -> executeAsync(call, future), wait);
+		} else {
+			executeAsync(call, future);
+		}
+	}
+
+	/**
+	 * 指定した時間の経過後にタスクを実行する
+	 * 
+	 * スケジューラのスレッドは全てのクライアントで共有しているため、
+	 * 時間の経過を待つためだけに使用し、タスクはエグゼキュータに渡して実行します。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call リクエスト
+	 * @param future 結果
+	 * @param task タスク
+	 * @param delay 待ち時間(ミリ秒)
+	 */
+	private <U> void schedule(Call<U> call, CompletableFuture<Gs2Result<U>> future, Runnable task, long delay) {
+		Executor executor = this.executor != null ? this.executor : ForkJoinPool.commonPool();
+		SchedulerUtil.getScheduler().schedule(() -> {
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				finish(call, future, createResult(call, e));
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private <U> void executeAsync(Call<U> call, CompletableFuture<Gs2Result<U>> future) {
+		if(future.isDone()) {
+			return;
+		}
+		if(call.limit == null) {
+			sendAsync(call, future);
+			return;
+		}
+		call.limit.acquire(call.priority).whenComplete((value, e) -> {
+			if(e != null) {
+				finish(call, future, createResult(call, e));
+			} else if(future.isDone()) {
+				call.limit.release();
+			} else {
+				sendAsync(call, future);
+			}
+		});
+	}
+
+	private <U> void sendAsync(Call<U> call, CompletableFuture<Gs2Result<U>> future) {
+		try {
+			acquire(call);
+		} catch (CircuitBreakerOpenException e) {
+			if(call.limit != null) {
+				call.limit.release();
+			}
+			finish(call, future, createResult(call, e));
+			return;
+		}
+		call.startedAt = System.nanoTime();
+		if(call.timingAttempt != null) {
+			call.timingAttempt.add(Phase.QUEUE, call.startedAt - call.queuedAt);
+		}
+		CompletableFuture<HttpResponse> execution;
+		try {
+			execution = executeAsync(call);
+		} catch (RuntimeException e) {
+			record(call, null, e);
+			finish(call, future, createResult(call, e));
+			return;
+		}
+		future.whenComplete((value, e) -> {
+			if(future.isCancelled()) {
+				execution.cancel(false);
+			}
+		});
+		execution.whenComplete((response, throwable) -> {
+			if(call.timingAttempt != null) {
+				call.timingAttempt.add(Phase.TTFB, System.nanoTime() - call.startedAt);
+			}
+			if(throwable instanceof CancellationException) {
+				if(call.circuit != null) {
+					call.circuit.release(call.circuitPermit);
+				}
+				if(call.limit != null) {
+					call.limit.release();
+				}
+				finish(call, future, createResult(call, throwable));
+				return;
+			}
+			if(throwable != null && !(throwable instanceof Exception)) {
+				record(call, null, throwable);
+				finish(call, future, createResult(call, throwable));
+				return;
+			}
+			Exception exception = (Exception)throwable;
+			Attempt<U> attempt;
+			try {
+				attempt = exception == null ? readResponse(call, response) : null;
+			} catch (RuntimeException e) {
+				record(call, null, e);
+				finish(call, future, createResult(call, e));
+				return;
+			}
+			record(call, attempt, exception);
+			if(attempt != null && attempt.success) {
+				finish(call, future, createResult(call, attempt, false));
+				return;
+			}
+			
+			long delay = retryPolicy.getRetryDelay(call.request, attempt == null ? 0 : attempt.statusCode, exception, call.retryCount);
+			if(delay >= 0) {
+				call.retryCount++;
+				Gs2Timing.Attempt timing = call.timingAttempt;
+				long scheduledAt = timing == null ? 0 : System.nanoTime();
+				schedule(call, future, () -> {
+					if(timing != null) {
+						timing.add(Phase.BACKOFF, System.nanoTime() - scheduledAt);
+					}
+					doRequestAsync(call, future);
+				}, delay);
+				return;
+			}
+			
+			if(attempt == null) {
+				if(!(exception instanceof SocketTimeoutException)) {
+					finish(call, future, createResult(call, new RuntimeException(exception)));
+					return;
+				}
+				attempt = Attempt.timeout();
+			}
+			finish(call, future, createResult(call, attempt, false));
+		});
+	}
+
+	/**
+	 * リクエストの完了を記録し、Future を完了する
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param future 結果を通知する Future
+	 * @param result 結果
+	 */
+	private static <U> void finish(Call<U> call, CompletableFuture<Gs2Result<U>> future, Gs2Result<U> result) {
+		if(!future.isDone()) {
+			future.complete(complete(call, result));
+		}
+	}
+
+	/**
+	 * 1回分のリクエストを送信して応答を待つ
+	 * ヘッジの対象となるリクエストは非同期に送信し、最初の応答を待ちます。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @return 試行結果
+	 * @throws IOException 通信エラーが発生した場合にスローされます
+	 */
+	private <U> Attempt<U> execute(Call<U> call) throws IOException {
+		HedgingPolicy hedgingPolicy = this.hedgingPolicy;
+		if(hedgingPolicy == null || !hedgingPolicy.isHedgeable(call.request)) {
+			try (CloseableHttpResponse response = httpClient.execute(call.request, call.timingAttempt)) {
+				return readResponse(call, response);
+			}
+		}
+		CompletableFuture<HttpResponse> execution = executeAsync(call);
+		try {
+			HttpResponse response = execution.get();
+			if(call.timingAttempt != null) {
+				call.timingAttempt.add(Phase.TTFB, System.nanoTime() - call.startedAt);
+			}
+			return readResponse(call, response);
+		} catch (InterruptedException e) {
+			execution.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for response");
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+		}
 	}
 
 	/**
-	 * POSTリクエストを生成
+	 * 1回分のリクエストを非同期に送信する
+	 * ヘッジの対象となるリクエストは、応答が遅い場合に重複して送信します。
 	 * 
-	 * @param url アクセス先URL
-	 * @param credential 認証情報
-	 * @param service アクセス先サービス
-	 * @param module アクセス先モジュール
-	 * @param function アクセス先ファンクション
-	 * @param body リクエストボディ
-	 * @return リクエストオブジェクト
+	 * @param call 実行中のリクエスト
+	 * @return 応答
 	 */
-	protected HttpPut createHttpPut(String url, IGs2Credential credential, String service, String module, String function, String body) {
-		Long timestamp = System.currentTimeMillis()/1000;
-		url = StringUtils.replace(url, "{service}", service);
-		url = StringUtils.replace(url, "{region}", region.getName());
-		HttpPut put = new HttpPut(url);
-		put.setHeader("Content-Type", "application/json");
-		credential.authorized(put, service, module, function, timestamp);
-		put.setEntity(new StringEntity(body, "UTF-8"));
-		return put;
+	private CompletableFuture<HttpResponse> executeAsync(Call<?> call) {
+		Gs2HttpClient httpClient = this.httpClient;
+		HedgingPolicy hedgingPolicy = this.hedgingPolicy;
+		if(hedgingPolicy == null || !hedgingPolicy.isHedgeable(call.request)) {
+			return httpClient.executeAsync(call.request);
+		}
+		return hedgingPolicy.execute(call.target, call.request, httpClient::executeAsync);
 	}
 
 	/**
-	 * GETリクエストを生成
+	 * リクエストの実行を開始する
 	 * 
-	 * @param url アクセス先URL
-	 * @param credential 認証情報
-	 * @param service アクセス先サービス
-	 * @param module アクセス先モジュール
-	 * @param function アクセス先ファンクション
-	 * @return リクエストオブジェクト
+	 * @param <U> レスポンスの型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @return 実行中のリクエスト
 	 */
-	protected HttpGet createHttpGet(String url, IGs2Credential credential, String service, String module, String function) {
-		Long timestamp = System.currentTimeMillis()/1000;
-		url = StringUtils.replace(url, "{service}", service);
-		url = StringUtils.replace(url, "{region}", region.getName());
-		HttpGet get = new HttpGet(url);
-		get.setHeader("Content-Type", "application/json");
-		credential.authorized(get, service, module, function, timestamp);
-		return get;
+	private <U> Call<U> newCall(HttpUriRequest request, Class<U> clazz) {
+		Gs2RequestTarget target = Gs2RequestTarget.of(request);
+		CircuitBreaker circuitBreaker = this.circuitBreaker;
+		Circuit circuit = circuitBreaker == null ? null : circuitBreaker.getCircuit(target);
+		ConcurrencyLimiter concurrencyLimiter = this.concurrencyLimiter;
+		Limit limit = concurrencyLimiter == null ? null : concurrencyLimiter.getLimit(target.getService());
+		Call<U> call = new Call<>(request, clazz, target, circuit, limit, ConcurrencyLimiter.getCurrentPriority());
+		Gs2MetricsListener metricsListener = this.metricsListener;
+		if(metricsListener != null) {
+			call.listener = metricsListener;
+		}
+		if(metricsListener != null || timingEnabled) {
+			Header requestId = request.getFirstHeader("X-GS2-REQUEST-ID");
+			call.timing = new Gs2Timing(requestId == null ? null : requestId.getValue());
+		}
+		if(call.listener != null || call.timing != null) {
+			call.createdAt = System.nanoTime();
+		}
+		Gs2ResponseCache responseCache = this.responseCache;
+		if(responseCache != null && responseCache.isCacheable(request, target)) {
+			call.cache = responseCache;
+			call.cacheKey = responseCache.getKey(request);
+			call.cacheGeneration = responseCache.getGeneration(target.getService());
+		}
+		return call;
 	}
 
 	/**
-	 * DELETEリクエストを生成
+	 * レスポンスキャッシュを参照する
+	 * 有効期間が切れていて再検証できる場合は、リクエストに条件付きリクエストのヘッダーを付与します。
 	 * 
-	 * @param url アクセス先URL
-	 * @param credential 認証情報
-	 * @param service アクセス先サービス
-	 * @param module アクセス先モジュール
-	 * @param function アクセス先ファンクション
-	 * @return リクエストオブジェクト
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @return キャッシュした結果。リクエストを送信する必要がある場合は null
 	 */
-	protected HttpDelete createHttpDelete(String url, IGs2Credential credential, String service, String module, String function) {
-		Long timestamp = System.currentTimeMillis()/1000;
-		url = StringUtils.replace(url, "{service}", service);
-		url = StringUtils.replace(url, "{region}", region.getName());
-		HttpDelete delete = new HttpDelete(url);
-		delete.setHeader("Content-Type", "application/json");
-		credential.authorized(delete, service, module, function, timestamp);
-		return delete;
+	private <U> Attempt<U> readCache(Call<U> call) {
+		if(call.cache == null) {
+			return null;
+		}
+		Entry entry = call.cache.get(call.cacheKey);
+		if(entry == null) {
+			return null;
+		}
+		if(entry.isFresh()) {
+			if(entry.isNotFound()) {
+				return Attempt.failure(404, entry.getMessage());
+			}
+			Attempt<U> attempt = decode(entry.getBody(), call.clazz);
+			if(attempt != null) {
+				return attempt;
+			}
+			call.cache.invalidate(call.cacheKey);
+			return null;
+		}
+		if(entry.getEtag() != null) {
+			call.request.setHeader("If-None-Match", entry.getEtag());
+		}
+		if(entry.getLastModified() != null) {
+			call.request.setHeader("If-Modified-Since", entry.getLastModified());
+		}
+		call.cached = entry;
+		return null;
 	}
 
 	/**
-	 * リクエストを実行する
+	 * キャッシュしたレスポンスボディを読み込む
 	 * 
 	 * @param <U> レスポンスの型
-	 * @param request リクエスト
+	 * @param body レスポンスボディ
 	 * @param clazz レスポンスのクラス
-	 * @return レスポンス
-	 * @throws BadRequestException リクエストパラメータに誤りがある場合にスローされます
-	 * @throws UnauthorizedException 認証に失敗した場合にスローされます
-	 * @throws NotFoundException リソースが存在しない場合にスローされます
-	 * @throws InternalServerErrorException 未知のサーバエラーが発生した場合にスローされます
+	 * @return 読み込み結果。読み込めなかった場合は null
 	 */
-	protected <U> U doRequest(HttpUriRequest request, Class<U> clazz) throws BadRequestException, UnauthorizedException, NotFoundException, InternalServerErrorException {
+	private <U> Attempt<U> decode(byte[] body, Class<U> clazz) {
 		try {
-			RequestConfig requestConfig = RequestConfig.custom()
-					.setConnectionRequestTimeout(1000 * 30)
-					.setConnectTimeout(1000 * 30)
-					.setSocketTimeout(1000 * 30)
-					.build();
-			HttpClient client = HttpClientBuilder.create()
-					.setDefaultRequestConfig(requestConfig)
-					.build();
-			ObjectMapper mapper = new ObjectMapper();
-			
-			int statusCode = 200;
-			String message = null;
-			int retryCount = 0;
-			for(; retryCount<Gs2Constant.RETRY_NUM; retryCount++) {
-				
-				boolean timeout = false;
+			return Attempt.success(clazz == null ? null : getReader(clazz).readValue(body));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * レート制限のトークンを予約する
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @return 送信までに待機する時間(msec)。トークンを予約できなかった場合は負の値
+	 */
+	private long reserve(Call<?> call) {
+		RateLimiter rateLimiter = this.rateLimiter;
+		return rateLimiter == null ? 0 : rateLimiter.reserve(credential, call.target.getService());
+	}
+
+	/**
+	 * レート制限のトークンが補充されるまで待機する
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @throws RateLimitExceededException トークンを予約できなかった場合にスローされます
+	 */
+	private void throttle(Call<?> call) throws RateLimitExceededException {
+		long wait = reserve(call);
+		if(wait < 0) {
+			throw new RateLimitExceededException("rate limit exceeded: " + call.target.getService());
+		}
+		if(wait > 0 && !sleep(wait)) {
+			throw new RuntimeException(new InterruptedException("interrupted while waiting for rate limit"));
+		}
+	}
+
+	/**
+	 * レスポンスを読み込む
+	 * レスポンスキャッシュの対象の場合は、結果をキャッシュに反映します。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param response レスポンス
+	 * @return 読み込み結果
+	 */
+	private <U> Attempt<U> readResponse(Call<U> call, HttpResponse response) {
+		Class<U> clazz = call.clazz;
+		try {
+			int statusCode = response.getStatusLine().getStatusCode();
+			if(statusCode == 304 && call.cached != null) {
+				long decodedAt = call.timingAttempt == null ? 0 : System.nanoTime();
+				Attempt<U> attempt = decode(call.cached.getBody(), clazz);
+				if(call.timingAttempt != null) {
+					call.timingAttempt.add(Phase.DECODE, System.nanoTime() - decodedAt);
+				}
+				if(attempt != null) {
+					call.cache.revalidated(call.cached);
+					return attempt;
+				}
+			}
+			if(statusCode == 200) {
+				if(clazz == null) return Attempt.success(null);
+				long decodedAt = call.timingAttempt == null ? 0 : System.nanoTime();
 				try {
-					HttpResponse response = client.execute(request);
-					
-					statusCode = response.getStatusLine().getStatusCode();
-					if(statusCode == 200) {
-						if(clazz == null) return null;
+					if(call.cache != null) {
+						try {
+							byte[] body = EntityUtils.toByteArray(response.getEntity());
+							Attempt<U> attempt = Attempt.success(getReader(clazz).readValue(body));
+							call.cache.put(call.cacheKey, call.target, body, getHeader(response, "ETag"), getHeader(response, "Last-Modified"), call.cacheGeneration);
+							return attempt;
+						} catch(Exception e) {
+							return Attempt.error(statusCode, e);
+						}
+					} else {
 						try (InputStream in = response.getEntity().getContent()) {
-							return mapper.readValue(in, clazz);
+							return Attempt.success(getReader(clazz).readValue(in));
 						} catch(Exception e) {
-							e.printStackTrace();
+							return Attempt.error(statusCode, e);
 						}
 					}
-					
-					try {
-						JsonNode json = mapper.readTree(response.getEntity().getContent());
-						message = ((TextNode)json.get("message")).asText();
-					} catch (Exception e) {}
-					
-					if(statusCode == 504) {
-						timeout = true;
+				} finally {
+					if(call.timingAttempt != null) {
+						call.timingAttempt.add(Phase.DECODE, System.nanoTime() - decodedAt);
 					}
-				} catch (SocketTimeoutException e) {
-					timeout = true;
 				}
-				if(timeout) {
-					try {
-						Thread.sleep(Gs2Constant.RETRY_WAIT);
-					} catch (InterruptedException e) { }
-					continue;
-				}
-				break;
 			}
 			
-			if(retryCount > 0 && request.getMethod().equals("DELETE") && statusCode == 404) {
-				return null;
+			String message = null;
+			try {
+				JsonNode json = objectMapper.readTree(response.getEntity().getContent());
+				message = ((TextNode)json.get("message")).asText();
+			} catch (Exception e) {}
+			if(statusCode == 404 && call.cache != null) {
+				call.cache.putNotFound(call.cacheKey, call.target, message, call.cacheGeneration);
 			}
-			
-			switch(statusCode) {
-			case 400: throw new BadRequestException(message);
-			case 401: throw new UnauthorizedException(message);
-			case 402: throw new QuotaExceedException(message);
-			case 404: throw new NotFoundException(message);
-			case 409: throw new ConflictException(message);
-			case 500: throw new InternalServerErrorException(message);
-			case 502: throw new BadGatewayException(message);
-			case 503: throw new ServiceUnavailableException(new ArrayList<>());
-			case 504: throw new RequestTimeoutException(message);
-			}
-			throw new RuntimeException("[" + statusCode + "] " + (message == null ? "unknown" : message));
-		} catch(IOException e) {
-			throw new RuntimeException(e);
+			return Attempt.failure(statusCode, message);
+		} finally {
+			EntityUtils.consumeQuietly(response.getEntity());
+		}
+	}
+
+	/**
+	 * レスポンスヘッダーの値を取得する
+	 * 
+	 * @param response レスポンス
+	 * @param name ヘッダー名
+	 * @return ヘッダーの値。存在しない場合は null
+	 */
+	private static String getHeader(HttpResponse response, String name) {
+		Header header = response.getFirstHeader(name);
+		return header == null ? null : header.getValue();
+	}
+
+	/**
+	 * レスポンスのクラスに対応するデシリアライザを取得する
+	 * 
+	 * @param clazz レスポンスのクラス
+	 * @return デシリアライザ
+	 */
+	private ObjectReader getReader(Class<?> clazz) {
+		ObjectReader reader = readers.get(clazz);
+		if(reader == null) {
+			reader = objectMapper.readerFor(clazz);
+			ObjectReader current = readers.putIfAbsent(clazz, reader);
+			if(current != null) {
+				reader = current;
+			}
+		}
+		return reader;
+	}
+
+	/**
+	 * リクエストボディのシリアライザを生成する
+	 * 
+	 * @param objectMapper JSONのシリアライザ/デシリアライザ
+	 * @return シリアライザ
+	 */
+	private static ObjectWriter createWriter(ObjectMapper objectMapper) {
+		return objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	/**
+	 * 同時実行数の制限とサーキットブレーカーを確認し、送信できるまで待機する
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @throws ConcurrencyLimitExceededException 同時実行数の上限を超えた場合にスローされます
+	 * @throws CircuitBreakerOpenException 回路が開いている場合にスローされます
+	 */
+	private static void admit(Call<?> call) throws ConcurrencyLimitExceededException, CircuitBreakerOpenException {
+		if(call.limit != null) {
+			CompletableFuture<Void> permit = call.limit.acquire(call.priority);
+			try {
+				permit.get();
+			} catch (InterruptedException e) {
+				call.limit.cancel(permit);
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException)e.getCause() : new RuntimeException(e.getCause());
+			}
+		}
+		try {
+			acquire(call);
+		} catch (CircuitBreakerOpenException e) {
+			if(call.limit != null) {
+				call.limit.release();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * サーキットブレーカーの回路が開いていないか確認し、送信の許可を取得する
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @throws CircuitBreakerOpenException 回路が開いている場合にスローされます
+	 */
+	private static void acquire(Call<?> call) throws CircuitBreakerOpenException {
+		Circuit circuit = call.circuit;
+		if(circuit == null) {
+			return;
+		}
+		Permit permit = circuit.tryAcquire();
+		if(permit == null) {
+			throw new CircuitBreakerOpenException("circuit breaker is open: " + circuit.getKey());
+		}
+		call.circuitPermit = permit;
+	}
+
+	/**
+	 * リクエストの結果をサーキットブレーカー、同時実行数の制限、レート制限、計測結果のリスナーに記録する
+	 * タイムアウト、5xx、通信エラーを失敗として扱います。
+	 * GET 以外のリクエストは成否にかかわらず、同じサービスのレスポンスキャッシュを破棄します。
+	 * リスナーがスローした例外は無視します。
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @param attempt 試行結果。通信エラーの場合は null
+	 * @param exception 通信エラー
+	 */
+	private void record(Call<?> call, Attempt<?> attempt, Throwable exception) {
+		long latency = System.nanoTime() - call.startedAt;
+		call.statusCode = attempt == null ? 0 : attempt.statusCode;
+		boolean failed = attempt == null || attempt.statusCode >= 500;
+		if(call.circuit != null) {
+			if(failed) {
+				call.circuit.onFailure(call.circuitPermit);
+			} else {
+				call.circuit.onSuccess(call.circuitPermit);
+			}
+		}
+		if(call.limit != null) {
+			call.limit.release(latency, failed);
+		}
+		RateLimiter rateLimiter = this.rateLimiter;
+		if(rateLimiter != null && attempt != null && attempt.statusCode == 402) {
+			rateLimiter.onQuotaExceeded(credential, call.target.getService());
+		}
+		Gs2ResponseCache responseCache = this.responseCache;
+		if(responseCache != null && !"GET".equals(call.request.getMethod())) {
+			responseCache.invalidateService(call.target.getService());
+		}
+		if(call.timingAttempt != null) {
+			call.timingAttempt.end(call.statusCode);
+		}
+		if(call.listener != null) {
+			try {
+				call.listener.onAttempt(new Gs2CallEvent(call.target, call.request.getMethod(), call.statusCode, call.retryCount,
+						attempt != null && attempt.success, attempt == null ? exception : attempt.cause, latency, false, call.timing));
+			} catch (RuntimeException e) {}
+		}
+	}
+
+	/**
+	 * 試行を開始する
+	 * 
+	 * @param call 実行中のリクエスト
+	 */
+	private static void begin(Call<?> call) {
+		if(call.timing != null) {
+			call.timingAttempt = call.timing.begin(call.retryCount);
+			call.queuedAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * リクエストの完了を記録し、計測結果のリスナーに通知する
+	 * 例外には所要時間を関連付けます。1つのリクエストに対して2回目以降の呼び出しは無視します。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param result 結果
+	 * @return 結果
+	 */
+	private static <U> Gs2Result<U> complete(Call<U> call, Gs2Result<U> result) {
+		return complete(call, result, false);
+	}
+
+	/**
+	 * リクエストの完了を記録し、計測結果のリスナーに通知する
+	 * 集約した呼び出しの結果は送信した呼び出しと共有しているため、例外に所要時間を関連付けません。
+	 * 送信した呼び出しはすでに完了しているため、集約した呼び出しだけが通知されます。
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param result 結果
+	 * @param coalesced 実行中の同じリクエストに集約した結果か
+	 * @return 結果
+	 */
+	private static <U> Gs2Result<U> complete(Call<U> call, Gs2Result<U> result, boolean coalesced) {
+		if(call.timing == null && call.listener == null) {
+			return result;
+		}
+		if(!Call.COMPLETED.compareAndSet(call, 0, 1)) {
+			return result;
+		}
+		Throwable exception = result.getException();
+		if(call.timing != null) {
+			call.timing.end();
+			if(!coalesced && exception instanceof Gs2ClientException) {
+				((Gs2ClientException)exception).setTiming(call.timing);
+			}
+		}
+		Gs2MetricsListener listener = call.listener;
+		if(listener != null) {
+			try {
+				listener.onCall(new Gs2CallEvent(call.target, call.request.getMethod(), result.getStatusCode(), call.retryCount, result.isSuccess(), exception, System.nanoTime() - call.createdAt, result.isCached(), coalesced, call.timing));
+			} catch (RuntimeException e) {}
+		}
+		return result;
+	}
+
+	/**
+	 * リトライまで待機し、待機時間を記録する
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @param delay 待機時間(msec)
+	 * @return 割り込まれた場合は false
+	 */
+	private static boolean sleep(Call<?> call, long delay) {
+		if(call.timingAttempt == null) {
+			return sleep(delay);
+		}
+		long startedAt = System.nanoTime();
+		try {
+			return sleep(delay);
+		} finally {
+			call.timingAttempt.add(Phase.BACKOFF, System.nanoTime() - startedAt);
+		}
+	}
+
+	/**
+	 * リトライまで待機する
+	 * モニタを使わずにスレッドを停止するため、仮想スレッドではキャリアスレッドを解放します。
+	 * 
+	 * @param delay 待機時間(msec)
+	 * @return 割り込まれた場合は false
+	 */
+	private static boolean sleep(long delay) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		while(true) {
+			if(Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+			long remaining = deadline - System.nanoTime();
+			if(remaining <= 0) {
+				return true;
+			}
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	/**
+	 * リトライ前のリクエストで削除が完了していたか
+	 * 
+	 * @param call 実行中のリクエスト
+	 * @param attempt 最後の試行結果
+	 * @return 削除が完了していた場合は true
+	 */
+	private static boolean isDeletedByRetry(Call<?> call, Attempt<?> attempt) {
+		return call.retryCount > 0 && call.request.getMethod().equals("DELETE") && attempt.statusCode == 404;
+	}
+
+	/**
+	 * 試行結果から結果を生成する
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param attempt 最後の試行結果
+	 * @param cached レスポンスキャッシュから応答したか
+	 * @return 結果
+	 */
+	private <U> Gs2Result<U> createResult(Call<U> call, Attempt<U> attempt, boolean cached) {
+		if(attempt.success || isDeletedByRetry(call, attempt)) {
+			return new Gs2Result<>(true, attempt.statusCode, null, attempt.value, null, call.retryCount, cached, call.timing, objectMapper);
+		}
+		RuntimeException exception = attempt.cause == null ? null : new RuntimeException("[" + attempt.statusCode + "] failed to read response", attempt.cause);
+		return new Gs2Result<>(false, attempt.statusCode, attempt.message, null, exception, call.retryCount, cached, call.timing, objectMapper);
+	}
+
+	/**
+	 * 通信エラーなど、ステータスコード以外で失敗した結果を生成する
+	 * 
+	 * @param <U> レスポンスの型
+	 * @param call 実行中のリクエスト
+	 * @param exception 失敗した原因
+	 * @return 結果
+	 */
+	private <U> Gs2Result<U> createResult(Call<U> call, Throwable exception) {
+		if(exception instanceof CompletionException && exception.getCause() != null) {
+			exception = exception.getCause();
+		}
+		return new Gs2Result<>(false, call.statusCode, null, null, exception, call.retryCount, false, call.timing, objectMapper);
+	}
+
+	/**
+	 * 失敗した結果に対応する例外を生成する
+	 * {@link Error} で失敗した結果は呼び出し側でそのままスローしてください。
+	 * 
+	 * @param result 結果
+	 * @return 例外
+	 */
+	private RuntimeException createException(Gs2Result<?> result) {
+		Throwable exception = result.getException();
+		if(exception instanceof RuntimeException) {
+			return (RuntimeException)exception;
+		}
+		if(exception != null) {
+			return new RuntimeException(exception);
+		}
+		RuntimeException created = createException(result.getStatusCode(), result.getMessage());
+		if(created instanceof Gs2ClientException) {
+			((Gs2ClientException)created).setTiming(result.getTiming());
+		}
+		return created;
+	}
+
+	/**
+	 * ステータスコードに対応する例外を生成する
+	 * エラー情報はクライアントのデシリアライザで参照時に解析します。
+	 * 
+	 * @param statusCode ステータスコード
+	 * @param message エラーメッセージ
+	 * @return 例外
+	 */
+	private RuntimeException createException(int statusCode, String message) {
+		boolean writableStackTrace = !stacklessExceptions;
+		Gs2ClientException exception;
+		switch(statusCode) {
+		case 400: exception = new BadRequestException(message, writableStackTrace); break;
+		case 401: exception = new UnauthorizedException(message, writableStackTrace); break;
+		case 402: exception = new QuotaExceedException(message, writableStackTrace); break;
+		case 404: exception = new NotFoundException(message, writableStackTrace); break;
+		case 409: exception = new ConflictException(message, writableStackTrace); break;
+		case 500: exception = new InternalServerErrorException(message); break;
+		case 502: exception = new BadGatewayException(message); break;
+		case 503: return new ServiceUnavailableException(new ArrayList<>());
+		case 504: exception = new RequestTimeoutException(message); break;
+		default: return new RuntimeException("[" + statusCode + "] " + (message == null ? "unknown" : message));
+		}
+		exception.setObjectMapper(objectMapper);
+		return exception;
+	}
+
+	/**
+	 * 実行中のリクエスト
+	 * 
+	 * @param <U> レスポンスの型
+	 */
+	private static final class Call<U> {
+
+		/** リクエスト */
+		final HttpUriRequest request;
+		/** レスポンスのクラス */
+		final Class<U> clazz;
+		/** アクセス先 */
+		final Gs2RequestTarget target;
+		/** サーキットブレーカーの回路 */
+		final Circuit circuit;
+		/** 現在の試行の送信の許可 */
+		Permit circuitPermit;
+		/** 同時実行数の制限 */
+		final Limit limit;
+		/** 優先度 */
+		final int priority;
+		/** リトライ回数 */
+		int retryCount;
+		/** 現在の試行を開始した時刻(nsec) */
+		long startedAt;
+		/** レスポンスキャッシュ */
+		Gs2ResponseCache cache;
+		/** レスポンスキャッシュのキー */
+		String cacheKey;
+		/** リクエストを作成した時点のレスポンスキャッシュの世代 */
+		long cacheGeneration;
+		/** 再検証中のキャッシュのエントリ */
+		Entry cached;
+		/** 計測結果のリスナー */
+		Gs2MetricsListener listener;
+		/** リクエストを開始した時刻(nsec) */
+		long createdAt;
+		/** フェーズごとの所要時間 */
+		Gs2Timing timing;
+		/** 現在の試行のフェーズごとの所要時間 */
+		Gs2Timing.Attempt timingAttempt;
+		/** 現在の試行の送信待ちを開始した時刻(nsec) */
+		long queuedAt;
+		/** 最後の試行のステータスコード */
+		int statusCode;
+		/** 完了を記録したか */
+		volatile int completed;
+
+		/** 完了の記録を1回に限るための更新器 */
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Call> COMPLETED = AtomicIntegerFieldUpdater.newUpdater(Call.class, "completed");
+
+		Call(HttpUriRequest request, Class<U> clazz, Gs2RequestTarget target, Circuit circuit, Limit limit, int priority) {
+			this.request = request;
+			this.clazz = clazz;
+			this.target = target;
+			this.circuit = circuit;
+			this.limit = limit;
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * 1回分のリクエストの結果
+	 * 
+	 * @param <U> レスポンスの型
+	 */
+	private static final class Attempt<U> {
+
+		/** 成功したか */
+		final boolean success;
+		/** ステータスコード */
+		final int statusCode;
+		/** エラーメッセージ */
+		final String message;
+		/** レスポンス */
+		final U value;
+		/** レスポンスを読み込めなかった原因 */
+		final Exception cause;
+
+		Attempt(boolean success, int statusCode, String message, U value, Exception cause) {
+			this.success = success;
+			this.statusCode = statusCode;
+			this.message = message;
+			this.value = value;
+			this.cause = cause;
+		}
+
+		static <U> Attempt<U> success(U value) {
+			return new Attempt<>(true, 200, null, value, null);
+		}
+
+		static <U> Attempt<U> failure(int statusCode, String message) {
+			return new Attempt<>(false, statusCode, message, null, null);
+		}
+
+		static <U> Attempt<U> error(int statusCode, Exception cause) {
+			return new Attempt<>(false, statusCode, null, null, cause);
+		}
+
+		static <U> Attempt<U> timeout() {
+			return new Attempt<>(false, 504, null, null, null);
 		}
 	}
 
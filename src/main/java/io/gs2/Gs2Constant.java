@@ -32,6 +32,66 @@ public class Gs2Constant {
 	/** リトライウェイト(msec) */
 	public static final int RETRY_WAIT = 1000;
 	
+	/** リトライウェイトの上限(msec) */
+	public static final int MAX_RETRY_WAIT = 1000 * 20;
+	
+	/** タイムアウト(msec) */
+	public static final int TIMEOUT = 1000 * 30;
+	
+	/** 最大同時接続数 */
+	public static final int MAX_CONNECTIONS = 256;
+	
+	/** 接続先ごとの最大同時接続数 */
+	public static final int MAX_CONNECTIONS_PER_ROUTE = 64;
+	
+	/** アイドル状態のコネクションを破棄するまでの時間(msec) */
+	public static final int IDLE_CONNECTION_TIMEOUT = 1000 * 60;
+	
+	/** 再利用前にコネクションの生存確認を行うまでのアイドル時間(msec) */
+	public static final int VALIDATE_AFTER_INACTIVITY = 1000 * 2;
+	
+	/** サーキットブレーカーが回路を開くまでの連続失敗回数 */
+	public static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+	
+	/** サーキットブレーカーが回路を開いておく時間(msec) */
+	public static final int CIRCUIT_BREAKER_OPEN_DURATION = 1000 * 30;
+	
+	/** 同時実行数の上限の初期値 */
+	public static final int CONCURRENCY_LIMIT = 16;
+	
+	/** 同時実行数の上限を超えたリクエストの待機キューの長さ */
+	public static final int CONCURRENCY_LIMIT_QUEUE_SIZE = 256;
+	
+	/** レート制限でバケットを保持する認証情報の最大数 */
+	public static final int RATE_LIMITER_MAX_CREDENTIALS = 1024;
+	
+	/** ヘッジリクエストを送信するまでの待機時間の初期値(msec) */
+	public static final int HEDGE_DELAY = 200;
+	
+	/** リクエスト数に対するヘッジリクエスト数の上限の割合 */
+	public static final double HEDGE_RATIO = 0.05;
+	
+	/** レスポンスキャッシュで NotFound を保持する期間(msec) */
+	public static final int RESPONSE_CACHE_NEGATIVE_TTL = 1000 * 5;
+	
+	/** レスポンスキャッシュの最大エントリ数 */
+	public static final int RESPONSE_CACHE_MAX_ENTRIES = 10000;
+	
+	/** レスポンスキャッシュの最大サイズ(byte) */
+	public static final long RESPONSE_CACHE_MAX_WEIGHT = 1024L * 1024 * 64;
+	
+	/** マイクロバッチでまとめる最大件数 */
+	public static final int MICRO_BATCH_SIZE = 100;
+	
+	/** マイクロバッチで送信を待つ時間(msec) */
+	public static final int MICRO_BATCH_WINDOW = 10;
+	
+	/** HTTP/2 で1本のコネクションに多重化する最大ストリーム数 */
+	public static final int HTTP2_MAX_CONCURRENT_STREAMS = 100;
+	
+	/** 一覧の取得で先読みするページ数 */
+	public static final int PAGE_PREFETCH = 1;
+	
 	/** APIエンドポイント */
 	public static final String ENDPOINT_HOST = "https://{service}.{region}.gs2io.com";
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.gs2.exception.Gs2ClientException;
+import io.gs2.metrics.Gs2Timing;
+import io.gs2.model.RequestError;
+
+/**
+ * リクエストの結果
+ * 
+ * 成功した場合はレスポンスを、失敗した場合はステータスコードとエラー情報を保持します。
+ * ステータスコードで失敗した場合は例外を生成しないため、404 や 409 を通常の分岐として扱う処理で利用してください。
+ * 
+ * @author Game Server Services, Inc.
+ *
+ * @param <U> レスポンスの型
+ */
+public class Gs2Result<U> {
+
+	/** 成功したか */
+	private final boolean success;
+	/** 最後の試行のステータスコード */
+	private final int statusCode;
+	/** エラーメッセージ */
+	private final String message;
+	/** レスポンス */
+	private final U value;
+	/** 通信エラーなど、ステータスコード以外で失敗した原因 */
+	private final Throwable exception;
+	/** リトライ回数 */
+	private final int retryCount;
+	/** レスポンスキャッシュから応答したか */
+	private final boolean cached;
+	/** フェーズごとの所要時間 */
+	private final Gs2Timing timing;
+	/** エラーメッセージの解析に使うデシリアライザ */
+	private final ObjectMapper objectMapper;
+	/** エラー情報。最初に参照されたときにメッセージを解析する */
+	private volatile List<RequestError> errors;
+
+	Gs2Result(boolean success, int statusCode, String message, U value, Throwable exception, int retryCount, boolean cached, Gs2Timing timing, ObjectMapper objectMapper) {
+		this.success = success;
+		this.statusCode = statusCode;
+		this.message = message;
+		this.value = value;
+		this.exception = exception;
+		this.retryCount = retryCount;
+		this.cached = cached;
+		this.timing = timing;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * 成功したか
+	 * 
+	 * @return 成功した場合は true
+	 */
+	public boolean isSuccess() {
+		return success;
+	}
+
+	/**
+	 * 最後の試行のステータスコードを取得
+	 * 
+	 * @return ステータスコード。応答を受け取れなかった場合は 0、タイムアウトした場合は 504
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * レスポンスを取得
+	 * 
+	 * @return レスポンス。失敗した場合は null
+	 */
+	public U getValue() {
+		return value;
+	}
+
+	/**
+	 * エラーメッセージを取得
+	 * 
+	 * @return エラーメッセージ。成功した場合は null
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * エラー情報を取得
+	 * メッセージは最初に呼び出されたときに解析します。
+	 * 
+	 * @return エラー情報。成功した場合は空のリスト
+	 */
+	public List<RequestError> getErrors() {
+		List<RequestError> errors = this.errors;
+		if(errors == null) {
+			errors = this.errors = Gs2ClientException.parseErrors(message, objectMapper);
+		}
+		return errors;
+	}
+
+	/**
+	 * 通信エラーなど、ステータスコード以外で失敗した原因を取得
+	 * {@link AbstractGs2Client} の例外をスローするメソッドは、この例外をそのままスローします。
+	 * 
+	 * @return 原因。成功した場合と、ステータスコードで失敗した場合は null
+	 */
+	public Throwable getException() {
+		return exception;
+	}
+
+	/**
+	 * リトライ回数を取得
+	 * 
+	 * @return リトライ回数
+	 */
+	public int getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * レスポンスキャッシュから応答したか
+	 * 
+	 * @return レスポンスキャッシュから応答した場合は true
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * フェーズごとの所要時間を取得
+	 * 
+	 * @return フェーズごとの所要時間。記録していない場合は null
+	 */
+	public Gs2Timing getTiming() {
+		return timing;
+	}
+
+	@Override
+	public String toString() {
+		return "Gs2Result [success=" + success + ", statusCode=" + statusCode + ", retryCount=" + retryCount
+				+ (message == null ? "" : ", message=" + message)
+				+ (exception == null ? "" : ", exception=" + exception) + "]";
+	}
+}
@@ -26,6 +26,16 @@ public class BadRequestException extends Gs2ClientException {
 		super(message);
 	}
 
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	public BadRequestException(String message, boolean writableStackTrace) {
+		super(message, writableStackTrace);
+	}
+
 	public BadRequestException(List<RequestError> errors) {
 		super(errors);
 	}
@@ -26,6 +26,16 @@ public class ConflictException extends Gs2ClientException {
 		super(message);
 	}
 
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	public ConflictException(String message, boolean writableStackTrace) {
+		super(message, writableStackTrace);
+	}
+
 	public ConflictException(List<RequestError> errors) {
 		super(errors);
 	}
@@ -15,41 +15,123 @@
  */
 package io.gs2.exception;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.gs2.metrics.Gs2Timing;
 import io.gs2.model.RequestError;
 
 @SuppressWarnings("serial")
 abstract public class Gs2ClientException extends RuntimeException {
 
-	List<RequestError> errors = new ArrayList<>();
+	/** エラーメッセージの解析に使うデフォルトのデシリアライザ */
+	private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+	/** エラー情報。最初に参照されたときにメッセージを解析する */
+	volatile List<RequestError> errors;
+	
+	/** エラーメッセージの解析に使うデシリアライザ */
+	transient ObjectMapper objectMapper;
+	
+	/** フェーズごとの所要時間 */
+	transient Gs2Timing timing;
 	
 	public Gs2ClientException(String message) {
 		super(message);
-		try {
-			JSONArray errors = new JSONArray(getMessage());
-			for(int i=0; i<errors.length(); i++) {
-				RequestError e = new RequestError();
-				JSONObject error = errors.getJSONObject(i);
-				e.setComponent(error.getString("component"));
-				e.setMessage(error.getString("message"));
-				this.errors.add(e);
-			}
-		} catch (JSONException e) {
-			this.errors.add(new RequestError("unknown", getMessage()));
-		}
+	}
+	
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	protected Gs2ClientException(String message, boolean writableStackTrace) {
+		super(message, null, true, writableStackTrace);
 	}
 	
 	public Gs2ClientException(List<RequestError> errors) {
 		this.errors = errors;
 	}
 	
+	/**
+	 * エラー情報を取得。
+	 * メッセージは最初に呼び出されたときに解析します。
+	 * 
+	 * @return エラー情報
+	 */
 	public List<RequestError> getErrors() {
+		List<RequestError> errors = this.errors;
+		if(errors == null) {
+			errors = this.errors = parseErrors(getMessage(), objectMapper);
+		}
 		return errors;
 	}
+	
+	/**
+	 * エラーメッセージの解析に使うデシリアライザを設定。
+	 * 
+	 * @param objectMapper デシリアライザ
+	 */
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+	
+	/**
+	 * フェーズごとの所要時間を取得。
+	 * 
+	 * @return フェーズごとの所要時間。記録していない場合は null
+	 */
+	public Gs2Timing getTiming() {
+		return timing;
+	}
+	
+	/**
+	 * フェーズごとの所要時間を設定。
+	 * 
+	 * @param timing フェーズごとの所要時間
+	 */
+	public void setTiming(Gs2Timing timing) {
+		this.timing = timing;
+	}
+	
+	/**
+	 * エラーメッセージを解析する。
+	 * {"component", "message"} の配列として解析できない場合はメッセージ全体を1件のエラーとして扱います。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param objectMapper デシリアライザ。null の場合はデフォルトのデシリアライザを使用する
+	 * @return エラー情報
+	 */
+	public static List<RequestError> parseErrors(String message, ObjectMapper objectMapper) {
+		if(message == null) {
+			return new ArrayList<>();
+		}
+		try {
+			JsonNode json = (objectMapper == null ? DEFAULT_MAPPER : objectMapper).readTree(message);
+			if(json != null && json.isArray()) {
+				List<RequestError> errors = new ArrayList<>(json.size());
+				for(JsonNode error : json) {
+					JsonNode component = error.get("component");
+					JsonNode text = error.get("message");
+					if(component == null || !component.isTextual() || text == null || !text.isTextual()) {
+						errors = null;
+						break;
+					}
+					errors.add(new RequestError(component.asText(), text.asText()));
+				}
+				if(errors != null) {
+					return errors;
+				}
+			}
+		} catch (IOException e) {
+			// JSON でないメッセージはそのまま扱う
+		}
+		return new ArrayList<>(Collections.singletonList(new RequestError("unknown", message)));
+	}
 }
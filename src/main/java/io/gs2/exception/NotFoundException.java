@@ -26,6 +26,16 @@ public class NotFoundException extends Gs2ClientException {
 		super(message);
 	}
 
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	public NotFoundException(String message, boolean writableStackTrace) {
+		super(message, writableStackTrace);
+	}
+
 	public NotFoundException(List<RequestError> errors) {
 		super(errors);
 	}
@@ -26,6 +26,16 @@ public class QuotaExceedException extends Gs2ClientException {
 		super(message);
 	}
 
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	public QuotaExceedException(String message, boolean writableStackTrace) {
+		super(message, writableStackTrace);
+	}
+
 	public QuotaExceedException(List<RequestError> errors) {
 		super(errors);
 	}
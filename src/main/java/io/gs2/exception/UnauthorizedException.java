@@ -26,6 +26,16 @@ public class UnauthorizedException extends Gs2ClientException {
 		super(message);
 	}
 
+	/**
+	 * コンストラクタ。
+	 * 
+	 * @param message エラーメッセージ
+	 * @param writableStackTrace スタックトレースを記録するか
+	 */
+	public UnauthorizedException(String message, boolean writableStackTrace) {
+		super(message, writableStackTrace);
+	}
+
 	public UnauthorizedException(List<RequestError> errors) {
 		super(errors);
 	}
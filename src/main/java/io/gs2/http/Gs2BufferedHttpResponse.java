@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * メモリ上に読み込まれたレスポンス。
+ *
+ * Apache HttpClient 以外で受信したレスポンスを {@link Gs2HttpClient#execute(org.apache.http.client.methods.HttpUriRequest)} の戻り値として返すために使用します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2BufferedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param statusLine ステータスライン
+	 */
+	public Gs2BufferedHttpResponse(StatusLine statusLine) {
+		super(statusLine);
+	}
+
+	/**
+	 * クローズできるレスポンスに変換する。
+	 *
+	 * @param response レスポンス
+	 * @return クローズできるレスポンス
+	 */
+	public static CloseableHttpResponse of(HttpResponse response) {
+		if(response instanceof CloseableHttpResponse) {
+			return (CloseableHttpResponse)response;
+		}
+		Gs2BufferedHttpResponse closeable = new Gs2BufferedHttpResponse(response.getStatusLine());
+		closeable.setHeaders(response.getAllHeaders());
+		closeable.setEntity(response.getEntity());
+		return closeable;
+	}
+
+	@Override
+	public void close() {
+		EntityUtils.consumeQuietly(getEntity());
+	}
+}
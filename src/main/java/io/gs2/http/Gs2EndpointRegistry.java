@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.gs2.Gs2Constant;
+import io.gs2.model.Region;
+
+/**
+ * サービス・リージョンごとのAPIエンドポイント。
+ *
+ * {@link Gs2Constant#ENDPOINT_HOST} のテンプレートはサービスごとに一度だけ展開されます。
+ * ローカルのスタブサーバなど、任意のエンドポイントに差し替えることもできます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2EndpointRegistry {
+
+	/** 共有インスタンス */
+	private static final Gs2EndpointRegistry DEFAULT = new Gs2EndpointRegistry();
+
+	/** サービスごとの、リージョンの序数で引けるエンドポイント */
+	private final ConcurrentHashMap<String, String[]> endpoints = new ConcurrentHashMap<>();
+
+	/**
+	 * プロセス内で共有されるインスタンスを取得。
+	 *
+	 * @return 共有インスタンス
+	 */
+	public static Gs2EndpointRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * エンドポイントを取得。
+	 *
+	 * @param service アクセス先サービス
+	 * @param region アクセス先リージョン
+	 * @return エンドポイント(末尾のスラッシュなし)
+	 */
+	public String resolve(String service, Region region) {
+		String[] endpoints = this.endpoints.get(service);
+		if(endpoints == null) {
+			endpoints = this.endpoints.computeIfAbsent(service, Gs2EndpointRegistry::compile);
+		}
+		return endpoints[region.ordinal()];
+	}
+
+	/**
+	 * エンドポイントを取得。
+	 *
+	 * @param service アクセス先サービス
+	 * @param region アクセス先リージョン
+	 * @return エンドポイント
+	 */
+	public URI resolveUri(String service, Region region) {
+		return URI.create(resolve(service, region));
+	}
+
+	/**
+	 * 全リージョンのエンドポイントを差し替える。
+	 *
+	 * @param service アクセス先サービス
+	 * @param endpoint エンドポイント
+	 */
+	public void override(String service, URI endpoint) {
+		String value = normalize(endpoint);
+		endpoints.compute(service, (key, current) -> {
+			String[] endpoints = new String[Region.values().length];
+			Arrays.fill(endpoints, value);
+			return endpoints;
+		});
+	}
+
+	/**
+	 * 指定したリージョンのエンドポイントを差し替える。
+	 *
+	 * @param service アクセス先サービス
+	 * @param region アクセス先リージョン
+	 * @param endpoint エンドポイント
+	 */
+	public void override(String service, Region region, URI endpoint) {
+		String value = normalize(endpoint);
+		endpoints.compute(service, (key, current) -> {
+			String[] endpoints = (current == null ? compile(service) : current).clone();
+			endpoints[region.ordinal()] = value;
+			return endpoints;
+		});
+	}
+
+	/**
+	 * 差し替えたエンドポイントを元に戻す。
+	 *
+	 * @param service アクセス先サービス
+	 */
+	public void reset(String service) {
+		endpoints.remove(service);
+	}
+
+	/**
+	 * テンプレートを展開して全リージョンのエンドポイントを生成する。
+	 *
+	 * @param service アクセス先サービス
+	 * @return リージョンの序数で引けるエンドポイント
+	 */
+	private static String[] compile(String service) {
+		String template = StringUtils.replace(Gs2Constant.ENDPOINT_HOST, "{service}", service);
+		Region[] regions = Region.values();
+		String[] endpoints = new String[regions.length];
+		for(Region region : regions) {
+			endpoints[region.ordinal()] = StringUtils.replace(template, "{region}", region.getName());
+		}
+		return endpoints;
+	}
+
+	private static String normalize(URI endpoint) {
+		return StringUtils.removeEnd(endpoint.toString(), "/");
+	}
+}
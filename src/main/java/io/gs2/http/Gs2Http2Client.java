@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ConnectionClosedException;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http2.H2ConnectionException;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+
+import io.gs2.Gs2Constant;
+
+/**
+ * HTTP/2 で通信するHTTPクライアント。
+ *
+ * エンドポイントごとに1本のコネクションへ並行するリクエストを多重化し、ヘッダーは HPACK で圧縮します。
+ * https では ALPN で、http では事前合意(h2c)で HTTP/2 を使用します。
+ * HTTP/2 で接続できなかったエンドポイントは、以降 {@link Gs2HttpClient} の HTTP/1.1 コネクションプールで通信します。
+ * 一度 HTTP/2 で通信できたエンドポイントでは、通信エラーが発生しても HTTP/1.1 での再送は行いません。
+ *
+ * 利用するには httpclient5 を依存関係に追加してください。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2Http2Client extends Gs2HttpClient {
+
+	/** HTTP/2 のプロトコルバージョン */
+	private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+	/** HTTP/2 で送信できないコネクション固有のヘッダー */
+	private static final Set<String> CONNECTION_HEADERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"connection",
+			"content-length",
+			"host",
+			"keep-alive",
+			"proxy-connection",
+			"te",
+			"transfer-encoding",
+			"upgrade"
+	)));
+
+	/** タイムアウト(msec) */
+	private final int timeout;
+	/** アイドル状態のコネクションを破棄するまでの時間(msec) */
+	private final int idleConnectionTimeout;
+	/** 1本のコネクションに多重化する最大ストリーム数 */
+	private final int maxConcurrentStreams;
+	/** HTTP/2 クライアント */
+	private volatile CloseableHttpAsyncClient h2Client;
+	/** HTTP/2 で通信できたエンドポイント */
+	private final Set<String> http2Endpoints = ConcurrentHashMap.newKeySet();
+	/** HTTP/1.1 で通信するエンドポイント */
+	private final Set<String> fallbackEndpoints = ConcurrentHashMap.newKeySet();
+	/** クローズ済みか */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ。
+	 */
+	public Gs2Http2Client() {
+		this(Gs2Constant.MAX_CONNECTIONS, Gs2Constant.MAX_CONNECTIONS_PER_ROUTE, Gs2Constant.TIMEOUT, Gs2Constant.IDLE_CONNECTION_TIMEOUT, Gs2Constant.HTTP2_MAX_CONCURRENT_STREAMS);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param maxConnections HTTP/1.1 で通信する場合の最大同時接続数
+	 * @param maxConnectionsPerRoute HTTP/1.1 で通信する場合の接続先ごとの最大同時接続数
+	 * @param timeout タイムアウト(msec)
+	 * @param idleConnectionTimeout アイドル状態のコネクションを破棄するまでの時間(msec)
+	 * @param maxConcurrentStreams 1本のコネクションに多重化する最大ストリーム数
+	 */
+	public Gs2Http2Client(int maxConnections, int maxConnectionsPerRoute, int timeout, int idleConnectionTimeout, int maxConcurrentStreams) {
+		super(maxConnections, maxConnectionsPerRoute, timeout, idleConnectionTimeout);
+		this.timeout = timeout;
+		this.idleConnectionTimeout = idleConnectionTimeout;
+		this.maxConcurrentStreams = maxConcurrentStreams;
+	}
+
+	/**
+	 * エンドポイントと HTTP/2 で通信しているか
+	 *
+	 * @param request リクエスト
+	 * @return HTTP/2 で通信している場合は true
+	 */
+	public boolean isHttp2(HttpUriRequest request) {
+		return !fallbackEndpoints.contains(getEndpoint(request));
+	}
+
+	@Override
+	public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		if(!isHttp2(request)) {
+			return super.execute(request);
+		}
+		CompletableFuture<HttpResponse> future = executeAsync(request);
+		try {
+			return Gs2BufferedHttpResponse.of(future.get());
+		} catch (InterruptedException e) {
+			future.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for response");
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+		}
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse> executeAsync(HttpUriRequest request) {
+		String endpoint = getEndpoint(request);
+		if(fallbackEndpoints.contains(endpoint)) {
+			return super.executeAsync(request);
+		}
+		SimpleHttpRequest h2Request;
+		try {
+			h2Request = toH2Request(request);
+		} catch (IOException e) {
+			CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+			result.completeExceptionally(e);
+			return result;
+		}
+		CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+		Future<SimpleHttpResponse> future = getH2Client().execute(h2Request, new FutureCallback<SimpleHttpResponse>() {
+
+			@Override
+			public void completed(SimpleHttpResponse response) {
+				http2Endpoints.add(endpoint);
+				result.complete(toResponse(response));
+			}
+
+			@Override
+			public void failed(Exception e) {
+				if(!http2Endpoints.contains(endpoint) && isUnsupported(e)) {
+					fallbackEndpoints.add(endpoint);
+					fallback(request, result);
+				} else {
+					result.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void cancelled() {
+				result.cancel(false);
+			}
+		});
+		result.whenComplete((response, e) -> {
+			if(result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		CloseableHttpAsyncClient instance;
+		synchronized (this) {
+			closed = true;
+			instance = h2Client;
+		}
+		try {
+			super.close();
+		} finally {
+			if(instance != null) {
+				instance.close(CloseMode.GRACEFUL);
+			}
+		}
+	}
+
+	/**
+	 * HTTP/1.1 でリクエストを送り直す
+	 *
+	 * @param request リクエスト
+	 * @param result レスポンス
+	 */
+	private void fallback(HttpUriRequest request, CompletableFuture<HttpResponse> result) {
+		super.executeAsync(request).whenComplete((response, e) -> {
+			if(e != null) {
+				result.completeExceptionally(e);
+			} else {
+				result.complete(response);
+			}
+		});
+	}
+
+	/**
+	 * HTTP/2 クライアントを取得。
+	 * I/Oスレッドは初回利用時に起動します。
+	 *
+	 * @return HTTP/2 クライアント
+	 */
+	private CloseableHttpAsyncClient getH2Client() {
+		CloseableHttpAsyncClient instance = h2Client;
+		if(instance == null) {
+			synchronized (this) {
+				if(closed) {
+					throw new IllegalStateException("http client is already closed");
+				}
+				instance = h2Client;
+				if(instance == null) {
+					instance = H2AsyncClientBuilder.create()
+							.setH2Config(H2Config.custom()
+									.setPushEnabled(false)
+									.setMaxConcurrentStreams(maxConcurrentStreams)
+									.build())
+							.setDefaultConnectionConfig(ConnectionConfig.custom()
+									.setConnectTimeout(Timeout.ofMilliseconds(timeout))
+									.setSocketTimeout(Timeout.ofMilliseconds(timeout))
+									.build())
+							.setDefaultRequestConfig(RequestConfig.custom()
+									.setResponseTimeout(Timeout.ofMilliseconds(timeout))
+									.build())
+							.evictIdleConnections(TimeValue.ofMilliseconds(idleConnectionTimeout))
+							.disableAutomaticRetries()
+							.disableCookieManagement()
+							.build();
+					instance.start();
+					h2Client = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * HTTP/2 に対応していないエンドポイントで発生する例外か
+	 * 一度も HTTP/2 で通信できていないエンドポイントでのみ判定に使用します。
+	 *
+	 * @param e 例外
+	 * @return HTTP/2 に対応していない場合は true
+	 */
+	private static boolean isUnsupported(Exception e) {
+		return e instanceof HttpException || e instanceof H2ConnectionException || e instanceof ConnectionClosedException;
+	}
+
+	private static String getEndpoint(HttpUriRequest request) {
+		return request.getURI().getScheme() + "://" + request.getURI().getRawAuthority();
+	}
+
+	private static SimpleHttpRequest toH2Request(HttpUriRequest request) throws IOException {
+		SimpleHttpRequest h2Request = SimpleHttpRequest.create(request.getMethod(), request.getURI());
+		HttpEntity entity = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest)request).getEntity() : null;
+		for(Header header : request.getAllHeaders()) {
+			String name = header.getName().toLowerCase();
+			if(CONNECTION_HEADERS.contains(name) || (entity != null && name.equals("content-type"))) {
+				continue;
+			}
+			h2Request.addHeader(header.getName(), header.getValue());
+		}
+		if(entity != null) {
+			// HTTP/1.1 と同様に、リクエストに指定された Content-Type をエンティティの Content-Type より優先する
+			Header contentType = request.getFirstHeader("Content-Type");
+			if(contentType == null) {
+				contentType = entity.getContentType();
+			}
+			h2Request.setBody(EntityUtils.toByteArray(entity), contentType == null ? null : org.apache.hc.core5.http.ContentType.parse(contentType.getValue()));
+		}
+		return h2Request;
+	}
+
+	private static Gs2BufferedHttpResponse toResponse(SimpleHttpResponse h2Response) {
+		Gs2BufferedHttpResponse response = new Gs2BufferedHttpResponse(new BasicStatusLine(HTTP_2, h2Response.getCode(), h2Response.getReasonPhrase()));
+		for(org.apache.hc.core5.http.Header header : h2Response.getHeaders()) {
+			response.addHeader(header.getName(), header.getValue());
+		}
+		byte[] body = h2Response.getBodyBytes();
+		if(body != null) {
+			ByteArrayEntity entity = new ByteArrayEntity(body);
+			if(h2Response.getContentType() != null) {
+				entity.setContentType(h2Response.getContentType().toString());
+			}
+			response.setEntity(entity);
+		}
+		return response;
+	}
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.pool.PoolStats;
+
+import io.gs2.Gs2Constant;
+import io.gs2.metrics.Gs2Timing;
+
+/**
+ * コネクションプールを保持するHTTPクライアント。
+ *
+ * 複数のGS2クライアントから共有して利用できます。
+ * 不要になったら {@link #close()} でプールを解放してください。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2HttpClient implements Closeable {
+
+	/** 共有インスタンス */
+	private static volatile Gs2HttpClient defaultInstance;
+
+	/** コネクションマネージャ */
+	private volatile PoolingHttpClientConnectionManager connectionManager;
+	/** HTTPクライアント */
+	private volatile CloseableHttpClient client;
+	/** 非同期HTTPクライアント */
+	private volatile CloseableHttpAsyncClient asyncClient;
+	/** 最大同時接続数 */
+	private final int maxConnections;
+	/** 接続先ごとの最大同時接続数 */
+	private final int maxConnectionsPerRoute;
+	/** アイドル状態のコネクションを破棄するまでの時間(msec) */
+	private final int idleConnectionTimeout;
+	/** リクエスト設定 */
+	private final RequestConfig requestConfig;
+	/** クローズ済みか */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ。
+	 */
+	public Gs2HttpClient() {
+		this(Gs2Constant.MAX_CONNECTIONS, Gs2Constant.MAX_CONNECTIONS_PER_ROUTE);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param maxConnections 最大同時接続数
+	 * @param maxConnectionsPerRoute 接続先ごとの最大同時接続数
+	 */
+	public Gs2HttpClient(int maxConnections, int maxConnectionsPerRoute) {
+		this(maxConnections, maxConnectionsPerRoute, Gs2Constant.TIMEOUT, Gs2Constant.IDLE_CONNECTION_TIMEOUT);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param maxConnections 最大同時接続数
+	 * @param maxConnectionsPerRoute 接続先ごとの最大同時接続数
+	 * @param timeout タイムアウト(msec)
+	 * @param idleConnectionTimeout アイドル状態のコネクションを破棄するまでの時間(msec)
+	 */
+	public Gs2HttpClient(int maxConnections, int maxConnectionsPerRoute, int timeout, int idleConnectionTimeout) {
+		this.maxConnections = maxConnections;
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		this.idleConnectionTimeout = idleConnectionTimeout;
+		requestConfig = RequestConfig.custom()
+				.setConnectionRequestTimeout(timeout)
+				.setConnectTimeout(timeout)
+				.setSocketTimeout(timeout)
+				.build();
+	}
+
+	/**
+	 * プロセス内で共有されるインスタンスを取得。
+	 *
+	 * @return 共有インスタンス
+	 */
+	public static Gs2HttpClient getDefault() {
+		Gs2HttpClient instance = defaultInstance;
+		if(instance == null) {
+			synchronized (Gs2HttpClient.class) {
+				instance = defaultInstance;
+				if(instance == null) {
+					instance = defaultInstance = new Gs2HttpClient();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * リクエストを実行する。
+	 * 返されたレスポンスは必ずクローズしてください。
+	 *
+	 * @param request リクエスト
+	 * @return レスポンス
+	 * @throws IOException 通信エラーが発生した場合にスローされます
+	 */
+	public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		return getClient().execute(request);
+	}
+
+	/**
+	 * リクエストを実行し、フェーズごとの所要時間を記録する。
+	 * 返されたレスポンスは必ずクローズしてください。
+	 *
+	 * @param request リクエスト
+	 * @param timing 試行の所要時間の記録先。記録しない場合は null
+	 * @return レスポンス
+	 * @throws IOException 通信エラーが発生した場合にスローされます
+	 */
+	public CloseableHttpResponse execute(HttpUriRequest request, Gs2Timing.Attempt timing) throws IOException {
+		if(timing == null) {
+			return execute(request);
+		}
+		Gs2PhaseRecorder.bind(timing);
+		try {
+			return execute(request);
+		} finally {
+			Gs2PhaseRecorder.unbind();
+		}
+	}
+
+	/**
+	 * リクエストを非同期に実行する。
+	 * レスポンスボディはメモリ上に読み込まれた状態で返されます。
+	 * 返された Future をキャンセルすると通信も中断されます。
+	 *
+	 * @param request リクエスト
+	 * @return レスポンス
+	 */
+	public CompletableFuture<HttpResponse> executeAsync(HttpUriRequest request) {
+		CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+		Future<HttpResponse> future = getAsyncClient().execute(request, new FutureCallback<HttpResponse>() {
+
+			@Override
+			public void completed(HttpResponse response) {
+				result.complete(response);
+			}
+
+			@Override
+			public void failed(Exception e) {
+				result.completeExceptionally(e);
+			}
+
+			@Override
+			public void cancelled() {
+				result.cancel(false);
+			}
+		});
+		result.whenComplete((response, e) -> {
+			if(result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * HTTPクライアントを取得。
+	 * コネクションプールは初回利用時に生成します。
+	 *
+	 * @return HTTPクライアント
+	 */
+	private CloseableHttpClient getClient() {
+		CloseableHttpClient instance = client;
+		if(instance == null) {
+			synchronized (this) {
+				if(closed) {
+					throw new IllegalStateException("http client is already closed");
+				}
+				instance = client;
+				if(instance == null) {
+					PoolingHttpClientConnectionManager connectionManager = Gs2PhaseRecorder.createConnectionManager();
+					connectionManager.setMaxTotal(maxConnections);
+					connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+					connectionManager.setValidateAfterInactivity(Gs2Constant.VALIDATE_AFTER_INACTIVITY);
+					instance = HttpClientBuilder.create()
+							.setConnectionManager(connectionManager)
+							.setRequestExecutor(Gs2PhaseRecorder.createRequestExecutor())
+							.setDefaultRequestConfig(requestConfig)
+							.evictExpiredConnections()
+							.evictIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS)
+							.build();
+					this.connectionManager = connectionManager;
+					client = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * 非同期HTTPクライアントを取得。
+	 * I/Oスレッドは初回利用時に起動します。
+	 *
+	 * @return 非同期HTTPクライアント
+	 */
+	private CloseableHttpAsyncClient getAsyncClient() {
+		CloseableHttpAsyncClient instance = asyncClient;
+		if(instance == null) {
+			synchronized (this) {
+				if(closed) {
+					throw new IllegalStateException("http client is already closed");
+				}
+				instance = asyncClient;
+				if(instance == null) {
+					instance = HttpAsyncClients.custom()
+							.setMaxConnTotal(maxConnections)
+							.setMaxConnPerRoute(maxConnectionsPerRoute)
+							.setDefaultRequestConfig(requestConfig)
+							.build();
+					instance.start();
+					asyncClient = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * コネクションプールの状態を取得。
+	 *
+	 * @return コネクションプールの状態
+	 */
+	public PoolStats getPoolStats() {
+		PoolingHttpClientConnectionManager connectionManager = this.connectionManager;
+		return connectionManager == null ? new PoolStats(0, 0, 0, maxConnections) : connectionManager.getTotalStats();
+	}
+
+	@Override
+	public void close() throws IOException {
+		CloseableHttpClient client;
+		CloseableHttpAsyncClient instance;
+		synchronized (this) {
+			closed = true;
+			client = this.client;
+			instance = asyncClient;
+		}
+		try {
+			if(client != null) {
+				client.close();
+			}
+		} finally {
+			if(instance != null) {
+				instance.close();
+			}
+		}
+	}
+}
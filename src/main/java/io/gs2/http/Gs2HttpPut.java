@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import org.apache.http.client.methods.HttpPut;
+
+/**
+ * アクセス先を保持するPUTリクエスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2HttpPut extends HttpPut implements Gs2TargetedRequest {
+
+	/** アクセス先 */
+	private final Gs2RequestTarget target;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param url アクセス先URL
+	 * @param target アクセス先
+	 */
+	public Gs2HttpPut(String url, Gs2RequestTarget target) {
+		super(url);
+		this.target = target;
+	}
+
+	@Override
+	public Gs2RequestTarget getTarget() {
+		return target;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * オブジェクトをJSONとして送信するリクエストボディ。
+ *
+ * 送信時に出力ストリームへ直接シリアライズするため、文字列やバイト列の中間コピーを作りません。
+ * 元のオブジェクトから何度でもシリアライズできるため、リトライ時にも再送できます。
+ * {@link #getContent()} が呼ばれた場合のみシリアライズ結果をバッファします。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2JsonEntity extends AbstractHttpEntity {
+
+	/** シリアライザ */
+	private final ObjectWriter writer;
+	/** 送信するオブジェクト */
+	private final Object value;
+	/** シリアライズ結果 */
+	private volatile byte[] buffer;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param writer シリアライザ
+	 * @param value 送信するオブジェクト
+	 */
+	public Gs2JsonEntity(ObjectWriter writer, Object value) {
+		this.writer = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.value = value;
+		setContentType(ContentType.APPLICATION_JSON.toString());
+	}
+
+	/**
+	 * 送信するオブジェクトを取得。
+	 *
+	 * @return 送信するオブジェクト
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public long getContentLength() {
+		byte[] buffer = this.buffer;
+		return buffer == null ? -1 : buffer.length;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		byte[] buffer = this.buffer;
+		if(buffer == null) {
+			buffer = this.buffer = writer.writeValueAsBytes(value);
+		}
+		return new ByteArrayInputStream(buffer);
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		byte[] buffer = this.buffer;
+		if(buffer != null) {
+			out.write(buffer);
+		} else {
+			writer.writeValue(out, value);
+		}
+		out.flush();
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.ssl.SSLContexts;
+
+import io.gs2.metrics.Gs2Timing;
+import io.gs2.metrics.Gs2Timing.Phase;
+
+/**
+ * 同期リクエストのフェーズごとの所要時間の記録。
+ *
+ * 同期リクエストはコネクションの取得から受信まで呼び出し元のスレッドで実行されるため、
+ * 実行中の試行をスレッドに関連付けて、コネクションマネージャなどのフックから記録します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+final class Gs2PhaseRecorder {
+
+	/** 実行中の試行 */
+	private static final ThreadLocal<Gs2Timing.Attempt> CURRENT = new ThreadLocal<>();
+
+	private Gs2PhaseRecorder() {
+	}
+
+	static void bind(Gs2Timing.Attempt attempt) {
+		CURRENT.set(attempt);
+	}
+
+	static void unbind() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * 実行中の試行にフェーズの所要時間を記録する。
+	 *
+	 * @param phase フェーズ
+	 * @param startedAt フェーズを開始した時刻(nsec)
+	 * @return 所要時間(nsec)
+	 */
+	private static long record(Phase phase, long startedAt) {
+		long duration = System.nanoTime() - startedAt;
+		Gs2Timing.Attempt attempt = CURRENT.get();
+		if(attempt != null) {
+			attempt.add(phase, duration);
+		}
+		return duration;
+	}
+
+	/**
+	 * 所要時間を記録するコネクションマネージャを生成する。
+	 *
+	 * @return コネクションマネージャ
+	 */
+	static PoolingHttpClientConnectionManager createConnectionManager() {
+		Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", new PlainSocketFactory())
+				.register("https", new SslSocketFactory())
+				.build();
+		return new ConnectionManager(registry);
+	}
+
+	/**
+	 * 所要時間を記録するリクエストの実行を生成する。
+	 *
+	 * @return リクエストの実行
+	 */
+	static HttpRequestExecutor createRequestExecutor() {
+		return new RequestExecutor();
+	}
+
+	/**
+	 * コネクションの取得を記録するコネクションマネージャ
+	 */
+	private static final class ConnectionManager extends PoolingHttpClientConnectionManager {
+
+		ConnectionManager(Registry<ConnectionSocketFactory> registry) {
+			super(registry, new DnsResolver());
+		}
+
+		@Override
+		public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+			ConnectionRequest request = super.requestConnection(route, state);
+			return new ConnectionRequest() {
+
+				@Override
+				public boolean cancel() {
+					return request.cancel();
+				}
+
+				@Override
+				public HttpClientConnection get(long timeout, TimeUnit timeUnit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+					long startedAt = System.nanoTime();
+					try {
+						return request.get(timeout, timeUnit);
+					} finally {
+						record(Phase.LEASE, startedAt);
+					}
+				}
+			};
+		}
+	}
+
+	/**
+	 * 名前解決を記録する
+	 */
+	private static final class DnsResolver extends SystemDefaultDnsResolver {
+
+		@Override
+		public InetAddress[] resolve(String host) throws UnknownHostException {
+			long startedAt = System.nanoTime();
+			try {
+				return super.resolve(host);
+			} finally {
+				record(Phase.DNS, startedAt);
+			}
+		}
+	}
+
+	/**
+	 * TCP接続を記録する
+	 */
+	private static final class PlainSocketFactory extends PlainConnectionSocketFactory {
+
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context) throws IOException {
+			long startedAt = System.nanoTime();
+			try {
+				return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+			} finally {
+				record(Phase.CONNECT, startedAt);
+			}
+		}
+	}
+
+	/**
+	 * TCP接続とTLSハンドシェイクを記録する
+	 */
+	private static final class SslSocketFactory extends SSLConnectionSocketFactory {
+
+		/** TLSハンドシェイクの所要時間(nsec) */
+		private final ThreadLocal<long[]> handshake = ThreadLocal.withInitial(() -> new long[1]);
+
+		SslSocketFactory() {
+			super(SSLContexts.createDefault(), getDefaultHostnameVerifier());
+		}
+
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context) throws IOException {
+			long[] handshake = this.handshake.get();
+			handshake[0] = 0;
+			long startedAt = System.nanoTime();
+			try {
+				return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+			} finally {
+				long duration = System.nanoTime() - startedAt;
+				Gs2Timing.Attempt attempt = CURRENT.get();
+				if(attempt != null) {
+					attempt.add(Phase.CONNECT, duration - handshake[0]);
+				}
+			}
+		}
+
+		@Override
+		public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+			long startedAt = System.nanoTime();
+			try {
+				return super.createLayeredSocket(socket, target, port, context);
+			} finally {
+				handshake.get()[0] += record(Phase.TLS, startedAt);
+			}
+		}
+	}
+
+	/**
+	 * リクエストの送信からレスポンスヘッダーの受信までを記録する
+	 */
+	private static final class RequestExecutor extends HttpRequestExecutor {
+
+		@Override
+		public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context) throws IOException, HttpException {
+			long startedAt = System.nanoTime();
+			try {
+				return super.execute(request, conn, context);
+			} finally {
+				record(Phase.TTFB, startedAt);
+			}
+		}
+	}
+}
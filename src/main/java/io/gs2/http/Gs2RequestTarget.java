@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * リクエストのアクセス先。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public final class Gs2RequestTarget {
+
+	/** アクセス先サービス */
+	private final String service;
+	/** アクセス先モジュール */
+	private final String module;
+	/** アクセス先ファンクション */
+	private final String function;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 */
+	public Gs2RequestTarget(String service, String module, String function) {
+		this.service = service;
+		this.module = module;
+		this.function = function;
+	}
+
+	/**
+	 * リクエストのアクセス先を取得。
+	 * アクセス先を保持していないリクエストの場合は、ホスト名の先頭をサービス名とみなします。
+	 *
+	 * @param request リクエスト
+	 * @return アクセス先
+	 */
+	public static Gs2RequestTarget of(HttpUriRequest request) {
+		if(request instanceof Gs2TargetedRequest) {
+			return ((Gs2TargetedRequest)request).getTarget();
+		}
+		String host = request.getURI().getHost();
+		if(host == null) {
+			return new Gs2RequestTarget(null, null, null);
+		}
+		int index = host.indexOf('.');
+		return new Gs2RequestTarget(index < 0 ? host : host.substring(0, index), null, null);
+	}
+
+	/**
+	 * アクセス先サービスを取得。
+	 *
+	 * @return アクセス先サービス
+	 */
+	public String getService() {
+		return service;
+	}
+
+	/**
+	 * アクセス先モジュールを取得。
+	 *
+	 * @return アクセス先モジュール
+	 */
+	public String getModule() {
+		return module;
+	}
+
+	/**
+	 * アクセス先ファンクションを取得。
+	 *
+	 * @return アクセス先ファンクション
+	 */
+	public String getFunction() {
+		return function;
+	}
+
+	@Override
+	public String toString() {
+		return service + ":" + module + ":" + function;
+	}
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+import io.gs2.Gs2Constant;
+import io.gs2.util.RequestKeyUtil;
+
+/**
+ * GETリクエストのレスポンスキャッシュ。
+ *
+ * レスポンスボディをサービス・モジュール・ファンクションごとの有効期間だけ保持し、
+ * エントリ数とサイズの上限を超えた場合は最も長く使われていないものから破棄します。
+ * 有効期間が切れてもサーバが ETag / Last-Modified を返していた場合は、条件付きリクエストで再検証します。
+ * NotFound は短い期間だけ保持します。
+ *
+ * 有効期間の初期値は 0 のため、{@link #withTtl(String, long)} などで有効期間を設定したアクセス先のみキャッシュします。
+ * クライアントが GET 以外のリクエストを送信すると、同じサービスのエントリを破棄します。
+ * エントリを破棄するたびにサービスの世代を進めるため、破棄の前に送信したGETリクエストのレスポンスは保持しません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2ResponseCache {
+
+	/** エントリ数の上限 */
+	private final int maxEntries;
+	/** レスポンスボディの合計サイズの上限(byte) */
+	private final long maxWeight;
+	/** 有効期間の初期値(msec) */
+	private volatile long ttl;
+	/** NotFound を保持する期間(msec) */
+	private volatile long negativeTtl = Gs2Constant.RESPONSE_CACHE_NEGATIVE_TTL;
+	/** サービス、または モジュール・ファンクションごとの有効期間(msec) */
+	private final ConcurrentHashMap<String, Long> ttls = new ConcurrentHashMap<>();
+	/** エントリ(アクセス順) */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** レスポンスボディの合計サイズ(byte) */
+	private long weight;
+	/** サービスごとの世代 */
+	private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+	/** すべてのエントリを破棄した回数 */
+	private volatile long generation;
+
+	/** ヒット数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** ミス数 */
+	private final AtomicLong missCount = new AtomicLong();
+	/** 再検証で有効と確認できた数 */
+	private final AtomicLong revalidatedCount = new AtomicLong();
+	/** 破棄したエントリ数 */
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * コンストラクタ。
+	 */
+	public Gs2ResponseCache() {
+		this(Gs2Constant.RESPONSE_CACHE_MAX_ENTRIES, Gs2Constant.RESPONSE_CACHE_MAX_WEIGHT);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param maxEntries エントリ数の上限
+	 * @param maxWeight レスポンスボディの合計サイズの上限(byte)
+	 */
+	public Gs2ResponseCache(int maxEntries, long maxWeight) {
+		if(maxEntries < 1 || maxWeight < 1) {
+			throw new IllegalArgumentException("invalid response cache");
+		}
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * 有効期間の初期値を設定
+	 *
+	 * @param ttl 有効期間(msec)。0 の場合はキャッシュしない
+	 * @return this
+	 */
+	public Gs2ResponseCache withTtl(long ttl) {
+		this.ttl = ttl;
+		return this;
+	}
+
+	/**
+	 * サービスの有効期間を設定
+	 *
+	 * @param service サービス
+	 * @param ttl 有効期間(msec)。0 の場合はキャッシュしない
+	 * @return this
+	 */
+	public Gs2ResponseCache withTtl(String service, long ttl) {
+		ttls.put(service, ttl);
+		return this;
+	}
+
+	/**
+	 * ファンクションの有効期間を設定
+	 *
+	 * @param service サービス
+	 * @param module モジュール
+	 * @param function ファンクション
+	 * @param ttl 有効期間(msec)。0 の場合はキャッシュしない
+	 * @return this
+	 */
+	public Gs2ResponseCache withTtl(String service, String module, String function, long ttl) {
+		ttls.put(new Gs2RequestTarget(service, module, function).toString(), ttl);
+		return this;
+	}
+
+	/**
+	 * NotFound を保持する期間を設定
+	 *
+	 * @param negativeTtl 保持する期間(msec)。0 の場合は保持しない
+	 * @return this
+	 */
+	public Gs2ResponseCache withNegativeTtl(long negativeTtl) {
+		this.negativeTtl = negativeTtl;
+		return this;
+	}
+
+	/**
+	 * アクセス先の有効期間を取得。
+	 *
+	 * @param target アクセス先
+	 * @return 有効期間(msec)
+	 */
+	public long getTtl(Gs2RequestTarget target) {
+		Long ttl = ttls.get(target.toString());
+		if(ttl == null) {
+			ttl = ttls.get(target.getService());
+		}
+		return ttl == null ? this.ttl : ttl;
+	}
+
+	/**
+	 * キャッシュの対象となるリクエストか
+	 *
+	 * @param request リクエスト
+	 * @param target アクセス先
+	 * @return キャッシュの対象となる場合は true
+	 */
+	public boolean isCacheable(HttpUriRequest request, Gs2RequestTarget target) {
+		return "GET".equals(request.getMethod()) && getTtl(target) > 0;
+	}
+
+	/**
+	 * エントリを取得。
+	 * 有効期間が切れたエントリも再検証のために返します。再検証できないエントリは破棄します。
+	 *
+	 * @param key キー
+	 * @return エントリ。存在しない場合は null
+	 */
+	public Entry get(String key) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if(entry != null && !entry.isFresh() && !entry.isRevalidatable()) {
+				remove(key);
+				entry = null;
+			}
+		}
+		if(entry != null && entry.isFresh()) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+		}
+		return entry;
+	}
+
+	/**
+	 * サービスの世代を取得。
+	 * サービスのエントリを破棄するたびに変わります。
+	 *
+	 * @param service サービス
+	 * @return 世代
+	 */
+	public long getGeneration(String service) {
+		return generation + generations.getOrDefault(service, 0L);
+	}
+
+	/**
+	 * レスポンスボディを保持する。
+	 *
+	 * @param key キー
+	 * @param target アクセス先
+	 * @param body レスポンスボディ
+	 * @param etag ETag
+	 * @param lastModified Last-Modified
+	 */
+	public void put(String key, Gs2RequestTarget target, byte[] body, String etag, String lastModified) {
+		put(key, target, body, etag, lastModified, getGeneration(target.getService()));
+	}
+
+	/**
+	 * レスポンスボディを保持する。
+	 * リクエストを送信してからサービスのエントリが破棄されている場合は保持しません。
+	 *
+	 * @param key キー
+	 * @param target アクセス先
+	 * @param body レスポンスボディ
+	 * @param etag ETag
+	 * @param lastModified Last-Modified
+	 * @param generation リクエストを送信する前に取得したサービスの世代
+	 */
+	public void put(String key, Gs2RequestTarget target, byte[] body, String etag, String lastModified, long generation) {
+		long ttl = getTtl(target);
+		if(ttl > 0) {
+			put(key, new Entry(target.getService(), body, null, etag, lastModified, System.currentTimeMillis() + ttl, ttl), generation);
+		}
+	}
+
+	/**
+	 * NotFound を保持する。
+	 *
+	 * @param key キー
+	 * @param target アクセス先
+	 * @param message エラーメッセージ
+	 */
+	public void putNotFound(String key, Gs2RequestTarget target, String message) {
+		putNotFound(key, target, message, getGeneration(target.getService()));
+	}
+
+	/**
+	 * NotFound を保持する。
+	 * リクエストを送信してからサービスのエントリが破棄されている場合は保持しません。
+	 *
+	 * @param key キー
+	 * @param target アクセス先
+	 * @param message エラーメッセージ
+	 * @param generation リクエストを送信する前に取得したサービスの世代
+	 */
+	public void putNotFound(String key, Gs2RequestTarget target, String message, long generation) {
+		long negativeTtl = this.negativeTtl;
+		if(negativeTtl > 0) {
+			put(key, new Entry(target.getService(), null, message, null, null, System.currentTimeMillis() + negativeTtl, negativeTtl), generation);
+		}
+	}
+
+	/**
+	 * 再検証で有効と確認できたエントリの有効期間を延長する。
+	 *
+	 * @param entry エントリ
+	 */
+	public void revalidated(Entry entry) {
+		entry.expiresAt = System.currentTimeMillis() + entry.ttl;
+		revalidatedCount.incrementAndGet();
+	}
+
+	/**
+	 * エントリを破棄する。
+	 *
+	 * @param key キー
+	 */
+	public void invalidate(String key) {
+		synchronized (entries) {
+			remove(key);
+		}
+	}
+
+	/**
+	 * サービスのエントリを破棄する。
+	 *
+	 * @param service サービス
+	 */
+	public void invalidateService(String service) {
+		synchronized (entries) {
+			generations.merge(service, 1L, Long::sum);
+			Iterator<Entry> iterator = entries.values().iterator();
+			while(iterator.hasNext()) {
+				Entry entry = iterator.next();
+				if(entry.service.equals(service)) {
+					weight -= entry.getWeight();
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * すべてのエントリを破棄する。
+	 */
+	public void invalidateAll() {
+		synchronized (entries) {
+			generation++;
+			entries.clear();
+			weight = 0;
+		}
+	}
+
+	/**
+	 * リクエストのキーを取得。
+	 *
+	 * @param request リクエスト
+	 * @return キー
+	 */
+	public String getKey(HttpUriRequest request) {
+		return RequestKeyUtil.toKey(request);
+	}
+
+	/**
+	 * エントリ数を取得。
+	 *
+	 * @return エントリ数
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * レスポンスボディの合計サイズを取得。
+	 *
+	 * @return レスポンスボディの合計サイズ(byte)
+	 */
+	public long getWeight() {
+		synchronized (entries) {
+			return weight;
+		}
+	}
+
+	/**
+	 * ヒット数を取得。
+	 *
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * ミス数を取得。
+	 * 再検証が必要なエントリもミスとして数えます。
+	 *
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 再検証で有効と確認できた数を取得。
+	 *
+	 * @return 再検証で有効と確認できた数
+	 */
+	public long getRevalidatedCount() {
+		return revalidatedCount.get();
+	}
+
+	/**
+	 * 上限を超えたため破棄したエントリ数を取得。
+	 *
+	 * @return 破棄したエントリ数
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private void put(String key, Entry entry, long generation) {
+		if(entry.getWeight() > maxWeight) {
+			return;
+		}
+		synchronized (entries) {
+			if(generation != getGeneration(entry.service)) {
+				return;
+			}
+			remove(key);
+			entries.put(key, entry);
+			weight += entry.getWeight();
+			Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+			while((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+				weight -= iterator.next().getValue().getWeight();
+				iterator.remove();
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	private void remove(String key) {
+		Entry entry = entries.remove(key);
+		if(entry != null) {
+			weight -= entry.getWeight();
+		}
+	}
+
+	/**
+	 * キャッシュのエントリ
+	 */
+	public static final class Entry {
+
+		/** サービス */
+		private final String service;
+		/** レスポンスボディ。NotFound の場合は null */
+		private final byte[] body;
+		/** NotFound のエラーメッセージ */
+		private final String message;
+		/** ETag */
+		private final String etag;
+		/** Last-Modified */
+		private final String lastModified;
+		/** 有効期限(epoch msec) */
+		private volatile long expiresAt;
+		/** 有効期間(msec) */
+		private final long ttl;
+
+		Entry(String service, byte[] body, String message, String etag, String lastModified, long expiresAt, long ttl) {
+			this.service = service;
+			this.body = body;
+			this.message = message;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.expiresAt = expiresAt;
+			this.ttl = ttl;
+		}
+
+		/**
+		 * レスポンスボディを取得。
+		 *
+		 * @return レスポンスボディ。NotFound の場合は null
+		 */
+		public byte[] getBody() {
+			return body;
+		}
+
+		/**
+		 * NotFound のエラーメッセージを取得。
+		 *
+		 * @return エラーメッセージ
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		/**
+		 * ETag を取得。
+		 *
+		 * @return ETag
+		 */
+		public String getEtag() {
+			return etag;
+		}
+
+		/**
+		 * Last-Modified を取得。
+		 *
+		 * @return Last-Modified
+		 */
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * NotFound を保持しているか
+		 *
+		 * @return NotFound の場合は true
+		 */
+		public boolean isNotFound() {
+			return body == null;
+		}
+
+		/**
+		 * 有効期間内か
+		 *
+		 * @return 有効期間内の場合は true
+		 */
+		public boolean isFresh() {
+			return System.currentTimeMillis() < expiresAt;
+		}
+
+		/**
+		 * 条件付きリクエストで再検証できるか
+		 *
+		 * @return 再検証できる場合は true
+		 */
+		public boolean isRevalidatable() {
+			return body != null && (etag != null || lastModified != null);
+		}
+
+		long getWeight() {
+			return (body == null ? 0 : body.length) + (message == null ? 0 : message.length() * 2L) + 64;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+/**
+ * アクセス先を保持するリクエスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public interface Gs2TargetedRequest {
+
+	/**
+	 * アクセス先を取得。
+	 *
+	 * @return アクセス先
+	 */
+	public Gs2RequestTarget getTarget();
+
+}
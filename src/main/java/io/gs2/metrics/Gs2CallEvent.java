@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.metrics;
+
+import io.gs2.http.Gs2RequestTarget;
+
+/**
+ * リクエストの計測結果。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public final class Gs2CallEvent {
+
+	/** アクセス先 */
+	private final Gs2RequestTarget target;
+	/** HTTPメソッド */
+	private final String method;
+	/** ステータスコード */
+	private final int statusCode;
+	/** リトライ回数 */
+	private final int retryCount;
+	/** 成功したか */
+	private final boolean success;
+	/** 例外 */
+	private final Throwable exception;
+	/** 所要時間(nsec) */
+	private final long latency;
+	/** レスポンスキャッシュから応答したか */
+	private final boolean cached;
+	/** 実行中の同じリクエストに集約したか */
+	private final boolean coalesced;
+	/** フェーズごとの所要時間 */
+	private final Gs2Timing timing;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param target アクセス先
+	 * @param method HTTPメソッド
+	 * @param statusCode ステータスコード。レスポンスを受信できなかった場合は 0
+	 * @param retryCount リトライ回数
+	 * @param success 成功したか
+	 * @param exception 例外。成功した場合と、ステータスコードのみで失敗した場合は null
+	 * @param latency 所要時間(nsec)
+	 * @param cached レスポンスキャッシュから応答したか
+	 * @param timing フェーズごとの所要時間
+	 */
+	public Gs2CallEvent(Gs2RequestTarget target, String method, int statusCode, int retryCount, boolean success, Throwable exception, long latency, boolean cached, Gs2Timing timing) {
+		this(target, method, statusCode, retryCount, success, exception, latency, cached, false, timing);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param target アクセス先
+	 * @param method HTTPメソッド
+	 * @param statusCode ステータスコード。レスポンスを受信できなかった場合は 0
+	 * @param retryCount リトライ回数
+	 * @param success 成功したか
+	 * @param exception 例外。成功した場合と、ステータスコードのみで失敗した場合は null
+	 * @param latency 所要時間(nsec)
+	 * @param cached レスポンスキャッシュから応答したか
+	 * @param coalesced 実行中の同じリクエストに集約したか
+	 * @param timing フェーズごとの所要時間
+	 */
+	public Gs2CallEvent(Gs2RequestTarget target, String method, int statusCode, int retryCount, boolean success, Throwable exception, long latency, boolean cached, boolean coalesced, Gs2Timing timing) {
+		this.target = target;
+		this.method = method;
+		this.statusCode = statusCode;
+		this.retryCount = retryCount;
+		this.success = success;
+		this.exception = exception;
+		this.latency = latency;
+		this.cached = cached;
+		this.coalesced = coalesced;
+		this.timing = timing;
+	}
+
+	/**
+	 * アクセス先を取得。
+	 *
+	 * @return アクセス先
+	 */
+	public Gs2RequestTarget getTarget() {
+		return target;
+	}
+
+	/**
+	 * アクセス先サービスを取得。
+	 *
+	 * @return アクセス先サービス
+	 */
+	public String getService() {
+		return target.getService();
+	}
+
+	/**
+	 * アクセス先モジュールを取得。
+	 *
+	 * @return アクセス先モジュール
+	 */
+	public String getModule() {
+		return target.getModule();
+	}
+
+	/**
+	 * アクセス先ファンクションを取得。
+	 *
+	 * @return アクセス先ファンクション
+	 */
+	public String getFunction() {
+		return target.getFunction();
+	}
+
+	/**
+	 * HTTPメソッドを取得。
+	 *
+	 * @return HTTPメソッド
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * ステータスコードを取得。
+	 *
+	 * @return ステータスコード。レスポンスを受信できなかった場合は 0
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * リトライ回数を取得。
+	 *
+	 * @return リトライ回数
+	 */
+	public int getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * 例外を取得。
+	 *
+	 * @return 例外。成功した場合と、ステータスコードのみで失敗した場合は null
+	 */
+	public Throwable getException() {
+		return exception;
+	}
+
+	/**
+	 * 例外の種類を取得。
+	 *
+	 * @return 例外のクラス名。例外がない場合は null
+	 */
+	public String getExceptionType() {
+		return exception == null ? null : exception.getClass().getSimpleName();
+	}
+
+	/**
+	 * 成功したかを取得。
+	 *
+	 * @return 成功した場合は true
+	 */
+	public boolean isSuccess() {
+		return success;
+	}
+
+	/**
+	 * 所要時間を取得。
+	 *
+	 * @return 所要時間(nsec)
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * レスポンスキャッシュから応答したかを取得。
+	 *
+	 * @return レスポンスキャッシュから応答した場合は true
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * 実行中の同じリクエストに集約したかを取得。
+	 * 集約した呼び出しは自身では送信せず、ステータスコードと例外は送信した呼び出しのものを返します。
+	 *
+	 * @return 集約した場合は true
+	 */
+	public boolean isCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * フェーズごとの所要時間を取得。
+	 * 試行ごとの通知では、完了していない後続の試行は含まれません。
+	 *
+	 * @return フェーズごとの所要時間
+	 */
+	public Gs2Timing getTiming() {
+		return timing;
+	}
+
+	/**
+	 * GS2リクエストIDを取得。
+	 *
+	 * @return GS2リクエストID。指定されていない場合は null
+	 */
+	public String getRequestId() {
+		return timing == null ? null : timing.getRequestId();
+	}
+
+	@Override
+	public String toString() {
+		return target + " " + method + " " + statusCode + " retry=" + retryCount + " latency=" + latency / 1000 + "us"
+				+ (exception == null ? "" : " " + getExceptionType());
+	}
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 組み込みのメトリクスの集計。
+ *
+ * サービス・モジュール・ファンクション・HTTPメソッドごとに、所要時間のヒストグラムと
+ * ステータスコード・例外の種類ごとの件数を集計します。
+ * 集計結果を任意のメトリクス基盤へ定期的に送信する場合は {@link #getStats()} を参照してください。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2Metrics implements Gs2MetricsListener {
+
+	/** アクセス先ごとの集計 */
+	private final ConcurrentHashMap<Key, Stats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public void onCall(Gs2CallEvent event) {
+		getOrCreate(event).onCall(event);
+	}
+
+	@Override
+	public void onAttempt(Gs2CallEvent event) {
+		getOrCreate(event).onAttempt(event);
+	}
+
+	private Stats getOrCreate(Gs2CallEvent event) {
+		Key key = new Key(event.getService(), event.getModule(), event.getFunction(), event.getMethod());
+		Stats stats = this.stats.get(key);
+		if(stats == null) {
+			stats = this.stats.computeIfAbsent(key, Stats::new);
+		}
+		return stats;
+	}
+
+	/**
+	 * アクセス先ごとの集計を取得。
+	 *
+	 * @return アクセス先ごとの集計
+	 */
+	public List<Stats> getStats() {
+		return Collections.unmodifiableList(new ArrayList<>(stats.values()));
+	}
+
+	/**
+	 * アクセス先の集計を取得。
+	 *
+	 * @param service アクセス先サービス
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @param method HTTPメソッド
+	 * @return 集計。リクエストを実行していない場合は null
+	 */
+	public Stats getStats(String service, String module, String function, String method) {
+		return stats.get(new Key(service, module, function, method));
+	}
+
+	/**
+	 * 集計を消去する。
+	 */
+	public void reset() {
+		stats.clear();
+	}
+
+	/**
+	 * 集計のキー
+	 */
+	private static final class Key {
+
+		final String service;
+		final String module;
+		final String function;
+		final String method;
+		final int hashCode;
+
+		Key(String service, String module, String function, String method) {
+			this.service = service;
+			this.module = module;
+			this.function = function;
+			this.method = method;
+			this.hashCode = Objects.hash(service, module, function, method);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)obj;
+			return Objects.equals(service, other.service) && Objects.equals(module, other.module)
+					&& Objects.equals(function, other.function) && Objects.equals(method, other.method);
+		}
+	}
+
+	/**
+	 * アクセス先ごとの集計
+	 */
+	public static final class Stats {
+
+		/** キー */
+		private final Key key;
+		/** リクエストの所要時間 */
+		private final LatencyHistogram latency = new LatencyHistogram();
+		/** 試行ごとの所要時間 */
+		private final LatencyHistogram attemptLatency = new LatencyHistogram();
+		/** リクエスト数 */
+		private final LongAdder calls = new LongAdder();
+		/** 失敗したリクエスト数 */
+		private final LongAdder failures = new LongAdder();
+		/** 試行回数 */
+		private final LongAdder attempts = new LongAdder();
+		/** リトライ回数 */
+		private final LongAdder retries = new LongAdder();
+		/** レスポンスキャッシュから応答した回数 */
+		private final LongAdder cacheHits = new LongAdder();
+		/** 実行中の同じリクエストに集約した回数 */
+		private final LongAdder coalesced = new LongAdder();
+		/** ステータスコードごとのリクエスト数 */
+		private final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+		/** 例外の種類ごとのリクエスト数 */
+		private final ConcurrentHashMap<String, LongAdder> exceptions = new ConcurrentHashMap<>();
+
+		Stats(Key key) {
+			this.key = key;
+		}
+
+		void onCall(Gs2CallEvent event) {
+			calls.increment();
+			retries.add(event.getRetryCount());
+			if(event.isCached()) {
+				cacheHits.increment();
+			}
+			if(event.isCoalesced()) {
+				coalesced.increment();
+			}
+			latency.record(event.getLatency());
+			increment(statusCodes, event.getStatusCode());
+			if(!event.isSuccess()) {
+				failures.increment();
+			}
+			if(event.getException() != null) {
+				increment(exceptions, event.getExceptionType());
+			}
+		}
+
+		void onAttempt(Gs2CallEvent event) {
+			attempts.increment();
+			attemptLatency.record(event.getLatency());
+		}
+
+		private static <K> void increment(ConcurrentHashMap<K, LongAdder> counters, K key) {
+			LongAdder counter = counters.get(key);
+			if(counter == null) {
+				counter = counters.computeIfAbsent(key, k -> new LongAdder());
+			}
+			counter.increment();
+		}
+
+		private static <K> Map<K, Long> toMap(ConcurrentHashMap<K, LongAdder> counters) {
+			Map<K, Long> result = new TreeMap<>();
+			counters.forEach((key, value) -> result.put(key, value.sum()));
+			return result;
+		}
+
+		/**
+		 * アクセス先サービスを取得。
+		 *
+		 * @return アクセス先サービス
+		 */
+		public String getService() {
+			return key.service;
+		}
+
+		/**
+		 * アクセス先モジュールを取得。
+		 *
+		 * @return アクセス先モジュール
+		 */
+		public String getModule() {
+			return key.module;
+		}
+
+		/**
+		 * アクセス先ファンクションを取得。
+		 *
+		 * @return アクセス先ファンクション
+		 */
+		public String getFunction() {
+			return key.function;
+		}
+
+		/**
+		 * HTTPメソッドを取得。
+		 *
+		 * @return HTTPメソッド
+		 */
+		public String getMethod() {
+			return key.method;
+		}
+
+		/**
+		 * リクエストの所要時間を取得。
+		 * リトライの待機時間を含みます。
+		 *
+		 * @return リクエストの所要時間
+		 */
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+
+		/**
+		 * 試行ごとの所要時間を取得。
+		 *
+		 * @return 試行ごとの所要時間
+		 */
+		public LatencyHistogram getAttemptLatency() {
+			return attemptLatency;
+		}
+
+		/**
+		 * リクエスト数を取得。
+		 *
+		 * @return リクエスト数
+		 */
+		public long getCalls() {
+			return calls.sum();
+		}
+
+		/**
+		 * 失敗したリクエスト数を取得。
+		 *
+		 * @return 失敗したリクエスト数
+		 */
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		/**
+		 * 試行回数を取得。
+		 *
+		 * @return 試行回数
+		 */
+		public long getAttempts() {
+			return attempts.sum();
+		}
+
+		/**
+		 * リトライ回数を取得。
+		 *
+		 * @return リトライ回数
+		 */
+		public long getRetries() {
+			return retries.sum();
+		}
+
+		/**
+		 * レスポンスキャッシュから応答した回数を取得。
+		 *
+		 * @return レスポンスキャッシュから応答した回数
+		 */
+		public long getCacheHits() {
+			return cacheHits.sum();
+		}
+
+		/**
+		 * 実行中の同じリクエストに集約した回数を取得。
+		 *
+		 * @return 集約した回数
+		 */
+		public long getCoalesced() {
+			return coalesced.sum();
+		}
+
+		/**
+		 * ステータスコードごとのリクエスト数を取得。
+		 * レスポンスを受信できなかったリクエストはステータスコード 0 に集計します。
+		 *
+		 * @return ステータスコードごとのリクエスト数
+		 */
+		public Map<Integer, Long> getStatusCodes() {
+			return toMap(statusCodes);
+		}
+
+		/**
+		 * 例外の種類ごとのリクエスト数を取得。
+		 *
+		 * @return 例外のクラス名ごとのリクエスト数
+		 */
+		public Map<String, Long> getExceptions() {
+			return toMap(exceptions);
+		}
+
+		@Override
+		public String toString() {
+			LatencyHistogram.Snapshot snapshot = latency.getSnapshot();
+			return key.service + ":" + key.module + ":" + key.function + " " + key.method
+					+ " calls=" + getCalls() + " failures=" + getFailures() + " retries=" + getRetries()
+					+ " p50=" + snapshot.getPercentile(50) / 1000 + "us"
+					+ " p99=" + snapshot.getPercentile(99) / 1000 + "us"
+					+ " max=" + snapshot.getMax() / 1000 + "us";
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.metrics;
+
+/**
+ * リクエストの計測結果を受け取るリスナー。
+ *
+ * 任意のメトリクス基盤へ転送する場合はこのインタフェースを実装してください。
+ * 組み込みの集計は {@link Gs2Metrics} を利用します。
+ * リスナーはリクエストを実行したスレッド、または非同期通信のI/Oスレッドから呼ばれるため、
+ * 処理をブロックしないでください。リスナーがスローした例外は無視され、リクエストの結果には影響しません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+@FunctionalInterface
+public interface Gs2MetricsListener {
+
+	/**
+	 * リクエストが完了した際に一度だけ呼ばれる。
+	 * リトライした場合は最後の試行の結果が通知されます。
+	 *
+	 * @param event 計測結果
+	 */
+	void onCall(Gs2CallEvent event);
+
+	/**
+	 * 1回分の試行が完了するたびに呼ばれる。
+	 *
+	 * @param event 計測結果
+	 */
+	default void onAttempt(Gs2CallEvent event) {}
+
+	/**
+	 * 複数のリスナーに通知するリスナーを生成する。
+	 *
+	 * @param listeners リスナー
+	 * @return リスナー
+	 */
+	static Gs2MetricsListener of(Gs2MetricsListener... listeners) {
+		Gs2MetricsListener[] copy = listeners.clone();
+		if(copy.length == 1) {
+			return copy[0];
+		}
+		return new Gs2MetricsListener() {
+
+			@Override
+			public void onCall(Gs2CallEvent event) {
+				for(Gs2MetricsListener listener : copy) {
+					listener.onCall(event);
+				}
+			}
+
+			@Override
+			public void onAttempt(Gs2CallEvent event) {
+				for(Gs2MetricsListener listener : copy) {
+					listener.onAttempt(event);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * リクエストのフェーズごとの所要時間。
+ *
+ * 試行ごとに、送信待ち・コネクションの取得・名前解決・接続・TLSハンドシェイク・
+ * 最初のバイトを受信するまでの時間・レスポンスの読み込み・リトライの待機時間を記録します。
+ * 名前解決・接続・TLSハンドシェイクは新しいコネクションを確立した場合のみ記録されます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public final class Gs2Timing {
+
+	/**
+	 * フェーズ
+	 */
+	public enum Phase {
+		/** レート制限・同時実行数の制限による送信待ち */
+		QUEUE,
+		/** コネクションプールからのコネクションの取得 */
+		LEASE,
+		/** 名前解決 */
+		DNS,
+		/** TCP接続 */
+		CONNECT,
+		/** TLSハンドシェイク */
+		TLS,
+		/** リクエストの送信を開始してからレスポンスの最初のバイトを受信するまで。非同期の場合はレスポンスボディの受信完了まで */
+		TTFB,
+		/** レスポンスボディの受信とデシリアライズ */
+		DECODE,
+		/** リトライまでの待機 */
+		BACKOFF,
+	}
+
+	/** フェーズの一覧 */
+	private static final Phase[] PHASES = Phase.values();
+
+	/** GS2リクエストID */
+	private final String requestId;
+	/** リクエストを開始した時刻(nsec) */
+	private final long startedAt;
+	/** 試行ごとの所要時間 */
+	private final List<Attempt> attempts = new CopyOnWriteArrayList<>();
+	/** リクエストの所要時間(nsec) */
+	private volatile long elapsed = -1;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param requestId GS2リクエストID
+	 */
+	public Gs2Timing(String requestId) {
+		this.requestId = requestId;
+		this.startedAt = System.nanoTime();
+	}
+
+	/**
+	 * 試行を開始する。
+	 *
+	 * @param retryCount これまでのリトライ回数
+	 * @return 試行の所要時間
+	 */
+	public Attempt begin(int retryCount) {
+		Attempt attempt = new Attempt(retryCount);
+		attempts.add(attempt);
+		return attempt;
+	}
+
+	/**
+	 * リクエストを完了する。
+	 */
+	public void end() {
+		if(elapsed < 0) {
+			elapsed = System.nanoTime() - startedAt;
+		}
+	}
+
+	/**
+	 * GS2リクエストIDを取得。
+	 *
+	 * @return GS2リクエストID。指定されていない場合は null
+	 */
+	public String getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * 試行ごとの所要時間を取得。
+	 *
+	 * @return 試行ごとの所要時間
+	 */
+	public List<Attempt> getAttempts() {
+		return new ArrayList<>(attempts);
+	}
+
+	/**
+	 * フェーズの所要時間の合計を取得。
+	 *
+	 * @param phase フェーズ
+	 * @return 全試行の所要時間の合計(nsec)
+	 */
+	public long get(Phase phase) {
+		long total = 0;
+		for(Attempt attempt : attempts) {
+			total += attempt.get(phase);
+		}
+		return total;
+	}
+
+	/**
+	 * リクエストの所要時間を取得。
+	 *
+	 * @return リクエストの所要時間(nsec)。完了していない場合は現在までの経過時間
+	 */
+	public long getElapsed() {
+		long elapsed = this.elapsed;
+		return elapsed < 0 ? System.nanoTime() - startedAt : elapsed;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("requestId=").append(requestId).append(" elapsed=").append(TimeUnit.NANOSECONDS.toMicros(getElapsed())).append("us");
+		for(Attempt attempt : getAttempts()) {
+			builder.append(" [").append(attempt).append("]");
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 1回分の試行の所要時間
+	 */
+	public static final class Attempt {
+
+		/** これまでのリトライ回数 */
+		private final int retryCount;
+		/** 試行を開始した時刻(nsec) */
+		private final long startedAt;
+		/** フェーズごとの所要時間(nsec) */
+		private final AtomicLongArray phases = new AtomicLongArray(PHASES.length);
+		/** ステータスコード */
+		private volatile int statusCode;
+		/** 試行の所要時間(nsec) */
+		private volatile long elapsed = -1;
+
+		Attempt(int retryCount) {
+			this.retryCount = retryCount;
+			this.startedAt = System.nanoTime();
+		}
+
+		/**
+		 * フェーズの所要時間を加算する。
+		 *
+		 * @param phase フェーズ
+		 * @param duration 所要時間(nsec)
+		 */
+		public void add(Phase phase, long duration) {
+			phases.addAndGet(phase.ordinal(), duration);
+		}
+
+		/**
+		 * 試行を完了する。
+		 * リトライまでの待機時間は完了後に加算されます。
+		 *
+		 * @param statusCode ステータスコード。レスポンスを受信できなかった場合は 0
+		 */
+		public void end(int statusCode) {
+			this.statusCode = statusCode;
+			this.elapsed = System.nanoTime() - startedAt;
+		}
+
+		/**
+		 * これまでのリトライ回数を取得。
+		 *
+		 * @return これまでのリトライ回数
+		 */
+		public int getRetryCount() {
+			return retryCount;
+		}
+
+		/**
+		 * ステータスコードを取得。
+		 *
+		 * @return ステータスコード。レスポンスを受信できなかった場合は 0
+		 */
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		/**
+		 * フェーズの所要時間を取得。
+		 *
+		 * @param phase フェーズ
+		 * @return 所要時間(nsec)
+		 */
+		public long get(Phase phase) {
+			return phases.get(phase.ordinal());
+		}
+
+		/**
+		 * 試行の所要時間を取得。
+		 * 送信待ちを含み、リトライまでの待機時間は含みません。
+		 *
+		 * @return 試行の所要時間(nsec)。完了していない場合は現在までの経過時間
+		 */
+		public long getElapsed() {
+			long elapsed = this.elapsed;
+			return elapsed < 0 ? System.nanoTime() - startedAt : elapsed;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append("retry=").append(retryCount).append(" status=").append(statusCode)
+					.append(" elapsed=").append(TimeUnit.NANOSECONDS.toMicros(getElapsed())).append("us");
+			for(Phase phase : PHASES) {
+				long duration = get(phase);
+				if(duration > 0) {
+					builder.append(" ").append(phase.name().toLowerCase()).append("=").append(TimeUnit.NANOSECONDS.toMicros(duration)).append("us");
+				}
+			}
+			return builder.toString();
+		}
+	}
+}
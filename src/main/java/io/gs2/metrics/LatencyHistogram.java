@@ -0,0 +1,232 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 所要時間のヒストグラム。
+ *
+ * HdrHistogram と同じく2のべき乗ごとの区間をさらに32分割した固定のバケットに記録するため、
+ * 記録はロックを取らずに配列の加算1回で完了し、相対誤差は約3%に収まります。
+ * 分解能はマイクロ秒で、記録できる最大値は約19時間です。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class LatencyHistogram {
+
+	/** 2のべき乗ごとの区間の分割数のビット数 */
+	private static final int SUB_BUCKET_BITS = 5;
+	/** 2のべき乗ごとの区間の分割数 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** 記録できる最大値のビット数 */
+	private static final int MAX_VALUE_BITS = 36;
+	/** 記録できる最大値(usec) */
+	private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	/** バケット数 */
+	static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+	/** バケットごとの記録数 */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	/** 合計値(usec) */
+	private final LongAdder sum = new LongAdder();
+	/** 最大値(usec) */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * 所要時間を記録する。
+	 *
+	 * @param latency 所要時間(nsec)
+	 */
+	public void record(long latency) {
+		long value = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(latency)));
+		counts.incrementAndGet(indexOf(value));
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * 記録数を取得。
+	 *
+	 * @return 記録数
+	 */
+	public long getCount() {
+		return getSnapshot().getCount();
+	}
+
+	/**
+	 * 現在の記録を取得。
+	 *
+	 * @return 現在の記録
+	 */
+	public Snapshot getSnapshot() {
+		long[] values = new long[BUCKET_COUNT];
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			values[i] = counts.get(i);
+		}
+		return new Snapshot(values, sum.sum(), max.get());
+	}
+
+	/**
+	 * 現在の記録を取得して記録を消去する。
+	 * 一定間隔でメトリクス基盤に送信する場合に利用します。
+	 *
+	 * @return 消去する前の記録
+	 */
+	public Snapshot getSnapshotAndReset() {
+		long[] values = new long[BUCKET_COUNT];
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			values[i] = counts.getAndSet(i, 0);
+		}
+		return new Snapshot(values, sum.sumThenReset(), max.getThenReset());
+	}
+
+	/**
+	 * 値を記録するバケットの位置を取得する。
+	 *
+	 * @param value 値(usec)
+	 * @return バケットの位置
+	 */
+	static int indexOf(long value) {
+		if(value < SUB_BUCKET_COUNT << 1) {
+			return (int)value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int)(value >>> shift);
+	}
+
+	/**
+	 * バケットに記録される値の下限を取得する。
+	 *
+	 * @param index バケットの位置
+	 * @return 値の下限(usec)
+	 */
+	static long lowerBoundOf(int index) {
+		if(index < SUB_BUCKET_COUNT << 1) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		return (long)((index & (SUB_BUCKET_COUNT - 1)) | SUB_BUCKET_COUNT) << shift;
+	}
+
+	/**
+	 * バケットに記録される値の上限を取得する。
+	 *
+	 * @param index バケットの位置
+	 * @return 値の上限(usec)
+	 */
+	static long upperBoundOf(int index) {
+		return index + 1 < BUCKET_COUNT ? lowerBoundOf(index + 1) - 1 : MAX_VALUE;
+	}
+
+	/**
+	 * ある時点の記録
+	 */
+	public static final class Snapshot {
+
+		/** バケットごとの記録数 */
+		private final long[] counts;
+		/** 記録数 */
+		private final long count;
+		/** 合計値(usec) */
+		private final long sum;
+		/** 最大値(usec) */
+		private final long max;
+
+		Snapshot(long[] counts, long sum, long max) {
+			long count = 0;
+			for(long value : counts) {
+				count += value;
+			}
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		/**
+		 * 記録数を取得。
+		 *
+		 * @return 記録数
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * 平均値を取得。
+		 *
+		 * @return 平均値(nsec)
+		 */
+		public long getMean() {
+			return count == 0 ? 0 : TimeUnit.MICROSECONDS.toNanos(sum / count);
+		}
+
+		/**
+		 * 最大値を取得。
+		 *
+		 * @return 最大値(nsec)
+		 */
+		public long getMax() {
+			return TimeUnit.MICROSECONDS.toNanos(max);
+		}
+
+		/**
+		 * パーセンタイル値を取得。
+		 *
+		 * @param percentile パーセンタイル(0.0 ～ 100.0)
+		 * @return パーセンタイル値(nsec)。記録がない場合は 0
+		 */
+		public long getPercentile(double percentile) {
+			if(count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long)Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+			long total = 0;
+			for(int i = 0; i < counts.length; i++) {
+				total += counts[i];
+				if(total >= rank) {
+					return TimeUnit.MICROSECONDS.toNanos(Math.min(max, upperBoundOf(i)));
+				}
+			}
+			return getMax();
+		}
+
+		/**
+		 * バケットごとの記録数を取得。
+		 * {@link #getBucketUpperBound(int)} と組み合わせて、メトリクス基盤のヒストグラムに変換できます。
+		 *
+		 * @return バケットごとの記録数
+		 */
+		public long[] getCounts() {
+			return counts.clone();
+		}
+
+		/**
+		 * バケットに記録される値の上限を取得。
+		 *
+		 * @param index バケットの位置
+		 * @return 値の上限(nsec)
+		 */
+		public long getBucketUpperBound(int index) {
+			return TimeUnit.MICROSECONDS.toNanos(upperBoundOf(index));
+		}
+	}
+}
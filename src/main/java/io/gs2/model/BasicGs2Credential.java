@@ -15,10 +15,12 @@
  */
 package io.gs2.model;
 
-import org.apache.commons.codec.binary.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.http.client.methods.HttpUriRequest;
 
-import io.gs2.util.SignUtil;
+import io.gs2.util.RequestSigner;
 
 /**
  * アクセスキーによる認証。
@@ -28,10 +30,17 @@ import io.gs2.util.SignUtil;
  */
 public class BasicGs2Credential implements IGs2Credential {
 	
+	/** 1秒間に保持する署名の最大数 */
+	private static final int MAX_CACHED_SIGNATURES = 1024;
+	
 	/** クライアントID */
 	String clientId;
 	/** クライアントシークレット */
 	String clientSecret;
+	/** 署名の生成 */
+	transient volatile RequestSigner signer;
+	/** 現在のタイムスタンプで生成済みの署名 */
+	transient volatile SignatureCache signatures;
 	
 	/**
 	 * コンストラクタ。
@@ -65,11 +74,79 @@ public class BasicGs2Credential implements IGs2Credential {
 		return clientSecret;
 	}
 
+	/**
+	 * 署名の生成を取得。
+	 * 
+	 * @return 署名の生成
+	 */
+	private RequestSigner getSigner() {
+		RequestSigner signer = this.signer;
+		if(signer == null) {
+			signer = this.signer = new RequestSigner(clientSecret);
+		}
+		return signer;
+	}
+
+	/**
+	 * タイムスタンプに対応する署名のキャッシュを取得。
+	 * 秒が切り替わると新しいキャッシュに置き換えます。
+	 * 
+	 * @param timestamp タイムスタンプ
+	 * @return 署名のキャッシュ。過去のタイムスタンプの場合は null
+	 */
+	private SignatureCache getSignatures(long timestamp) {
+		SignatureCache signatures = this.signatures;
+		if(signatures == null || signatures.timestamp < timestamp) {
+			signatures = this.signatures = new SignatureCache(timestamp);
+		}
+		return signatures.timestamp == timestamp ? signatures : null;
+	}
+
 	@Override
 	public void authorized(HttpUriRequest request, String service, String module, String function, Long timestamp) {
-		String sign = new Base64().encodeAsString(SignUtil.sign(getClientSecret(), module, function, timestamp));
+		SignatureCache signatures = module == null || function == null ? null : getSignatures(timestamp);
+		String sign = signatures == null ? null : signatures.get(module, function);
+		if(sign == null) {
+			sign = getSigner().sign(module, function, timestamp);
+			if(signatures != null) {
+				signatures.put(module, function, sign);
+			}
+		}
 		request.setHeader("X-GS2-CLIENT-ID", getClientId());
-		request.setHeader("X-GS2-REQUEST-TIMESTAMP", String.valueOf(timestamp));
+		request.setHeader("X-GS2-REQUEST-TIMESTAMP", signatures == null ? String.valueOf(timestamp) : signatures.timestampValue);
 		request.setHeader("X-GS2-REQUEST-SIGN", sign);
 	}
+
+	/**
+	 * 1秒間に生成した署名のキャッシュ
+	 */
+	private static final class SignatureCache {
+
+		/** タイムスタンプ */
+		final long timestamp;
+		/** タイムスタンプの文字列表現 */
+		final String timestampValue;
+		/** モジュール・ファンクションごとの署名 */
+		final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> signatures = new ConcurrentHashMap<>();
+		/** 保持している署名の数 */
+		final AtomicInteger size = new AtomicInteger();
+
+		SignatureCache(long timestamp) {
+			this.timestamp = timestamp;
+			this.timestampValue = String.valueOf(timestamp);
+		}
+
+		String get(String module, String function) {
+			ConcurrentHashMap<String, String> functions = signatures.get(module);
+			return functions == null ? null : functions.get(function);
+		}
+
+		void put(String module, String function, String sign) {
+			if(size.incrementAndGet() > MAX_CACHED_SIGNATURES) {
+				size.decrementAndGet();
+				return;
+			}
+			signatures.computeIfAbsent(module, key -> new ConcurrentHashMap<>()).put(function, sign);
+		}
+	}
 }
@@ -15,7 +15,8 @@
  */
 package io.gs2.model;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * リージョン情報
@@ -27,6 +28,15 @@ public enum Region {
 	/** アジアパシフィック北東1(東京) */
 	AP_NORTHEAST_1("ap-northeast-1");
 	
+	/** リージョン名からの逆引き */
+	private static final Map<String, Region> BY_NAME = new HashMap<>();
+	
+	static {
+		for(Region region : Region.values()) {
+			BY_NAME.put(region.name, region);
+		}
+	}
+	
 	/** リージョン名 */
 	String name;
 	
@@ -44,11 +54,7 @@ public enum Region {
 	}
 
 	public static Region prettyValueOf(String value) {
-		for(Region region : Region.values()) {
-			if(Objects.equals(region.name, value)) {
-				return region;
-			}
-		}
-		return AP_NORTHEAST_1;
+		Region region = BY_NAME.get(value);
+		return region == null ? AP_NORTHEAST_1 : region;
 	}
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+/**
+ * 一覧を {@code java.util.concurrent.Flow.Publisher} として購読するためのアダプタ。
+ *
+ * Java 11 以降でのみ利用できます。
+ * Java 11 以降では Multi-Release jar の META-INF/versions/11 に含まれる実装が使用されます。
+ * このクラスは Java 8 で実行した場合の実装で、インスタンスを生成できません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2PagePublisher<E> {
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param paginator 一覧
+	 * @throws UnsupportedOperationException Java 11 より前のバージョンで実行した場合にスローされます
+	 */
+	public Gs2PagePublisher(Gs2Paginator<E> paginator) {
+		throw new UnsupportedOperationException("Gs2PagePublisher requires Java 11 or later");
+	}
+
+	/**
+	 * 一覧を {@code java.util.concurrent.Flow.Publisher} に変換する。
+	 *
+	 * @param <E> 要素の型
+	 * @param paginator 一覧
+	 * @return パブリッシャー
+	 * @throws UnsupportedOperationException Java 11 より前のバージョンで実行した場合にスローされます
+	 */
+	public static <E> Gs2PagePublisher<E> of(Gs2Paginator<E> paginator) {
+		return new Gs2PagePublisher<>(paginator);
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.gs2.Gs2Constant;
+
+/**
+ * ページトークンで分割された一覧の取得。
+ *
+ * 呼び出し側が現在のページを処理している間に次のページを先読みします。
+ * 未消費のページ数は先読みするページ数までに制限されるため、一覧全体をメモリに保持することはありません。
+ * 反復するたびに最初のページから取得し直します。
+ *
+ * Java 11 以降では {@link Gs2PagePublisher} で {@code java.util.concurrent.Flow.Publisher} として購読できます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2Paginator<E> implements Iterable<E> {
+
+	/** ページを取得する関数 */
+	private final PageFetcher<E> fetcher;
+	/** 先読みするページ数 */
+	private int prefetch = Gs2Constant.PAGE_PREFETCH;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param fetcher ページを取得する関数
+	 */
+	public Gs2Paginator(PageFetcher<E> fetcher) {
+		this.fetcher = fetcher;
+	}
+
+	/**
+	 * 先読みするページ数を取得
+	 *
+	 * @return 先読みするページ数
+	 */
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+	/**
+	 * 先読みするページ数を設定
+	 * 0 を指定すると現在のページを処理し終えてから次のページを取得します。
+	 *
+	 * @param prefetch 先読みするページ数
+	 */
+	public void setPrefetch(int prefetch) {
+		if(prefetch < 0) {
+			throw new IllegalArgumentException("invalid prefetch");
+		}
+		this.prefetch = prefetch;
+	}
+
+	/**
+	 * 先読みするページ数を設定
+	 * 0 を指定すると現在のページを処理し終えてから次のページを取得します。
+	 *
+	 * @param prefetch 先読みするページ数
+	 * @return this
+	 */
+	public Gs2Paginator<E> withPrefetch(int prefetch) {
+		setPrefetch(prefetch);
+		return this;
+	}
+
+	/**
+	 * 一覧を反復する。
+	 * 途中で反復をやめる場合は {@link PageIterator#close()} で先読みを中止してください。
+	 * 取得に失敗した場合は {@link PageIterator#hasNext()} がリクエストと同じ例外をスローします。
+	 *
+	 * @return イテレータ
+	 */
+	@Override
+	public PageIterator<E> iterator() {
+		return new PageIterator<>(new PageBuffer<>(fetcher, prefetch, () -> {}));
+	}
+
+	/**
+	 * 一覧をストリームとして取得する。
+	 * 途中で処理をやめる場合はストリームをクローズしてください。
+	 *
+	 * @return ストリーム
+	 */
+	public Stream<E> stream() {
+		PageIterator<E> iterator = iterator();
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::close);
+	}
+
+	/**
+	 * 一覧を購読する。
+	 * 要素は {@link PageSubscription#request(long)} で要求した数だけ通知されます。
+	 *
+	 * @param onNext 要素を受け取る処理
+	 * @param onError 取得に失敗したときの処理
+	 * @param onComplete 最後まで通知したときの処理
+	 * @return 購読
+	 */
+	PageSubscription<E> subscribe(Consumer<? super E> onNext, Consumer<Throwable> onError, Runnable onComplete) {
+		return new PageSubscription<>(fetcher, prefetch, onNext, onError, onComplete);
+	}
+
+	/**
+	 * ページを取得する関数
+	 *
+	 * @param <E> 要素の型
+	 */
+	@FunctionalInterface
+	public interface PageFetcher<E> {
+
+		/**
+		 * ページを取得する。
+		 *
+		 * @param pageToken ページトークン。最初のページの場合は null
+		 * @return ページ
+		 */
+		CompletableFuture<Page<E>> fetch(String pageToken);
+	}
+
+	/**
+	 * 一覧の1ページ
+	 *
+	 * @param <E> 要素の型
+	 */
+	public static class Page<E> {
+
+		/** 要素 */
+		private final List<E> items;
+		/** 次のページのトークン */
+		private final String nextPageToken;
+
+		/**
+		 * コンストラクタ。
+		 *
+		 * @param items 要素
+		 * @param nextPageToken 次のページのトークン。最後のページの場合は null
+		 */
+		public Page(List<E> items, String nextPageToken) {
+			this.items = items == null ? Collections.<E>emptyList() : items;
+			this.nextPageToken = nextPageToken;
+		}
+
+		/**
+		 * 要素を取得
+		 *
+		 * @return 要素
+		 */
+		public List<E> getItems() {
+			return items;
+		}
+
+		/**
+		 * 次のページのトークンを取得
+		 *
+		 * @return 次のページのトークン。最後のページの場合は null
+		 */
+		public String getNextPageToken() {
+			return nextPageToken;
+		}
+	}
+
+	/**
+	 * 先読みを中止できるイテレータ
+	 *
+	 * @param <E> 要素の型
+	 */
+	public static class PageIterator<E> implements Iterator<E>, AutoCloseable {
+
+		/** 取得済みのページ */
+		private final PageBuffer<E> buffer;
+		/** 次に返す要素 */
+		private E next;
+
+		PageIterator(PageBuffer<E> buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(next != null) {
+				return true;
+			}
+			try {
+				next = buffer.take();
+			} catch (InterruptedException e) {
+				buffer.close();
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(new InterruptedException("interrupted while waiting for page"));
+			}
+			if(next == null) {
+				Throwable error = buffer.getError();
+				if(error != null) {
+					throw error instanceof RuntimeException ? (RuntimeException)error : new CompletionException(error);
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public E next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			E item = next;
+			next = null;
+			return item;
+		}
+
+		/**
+		 * 先読みを中止する。
+		 */
+		@Override
+		public void close() {
+			buffer.close();
+		}
+	}
+}
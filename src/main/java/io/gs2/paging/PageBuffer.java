@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 取得済みのページのバッファ。
+ *
+ * 要素を取り出すたびに、未消費のページ数が先読みするページ数を下回っていれば次のページを要求します。
+ * ページトークンは前のページのレスポンスに含まれるため、ページの取得は常に1件ずつ順番に行います。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+final class PageBuffer<E> {
+
+	/** ページを取得する関数 */
+	private final Gs2Paginator.PageFetcher<E> fetcher;
+	/** 先読みするページ数 */
+	private final int prefetch;
+	/** ページが届いたときに呼び出す処理 */
+	private final Runnable listener;
+	/** 未消費のページ */
+	private final ArrayDeque<Iterator<E>> pages = new ArrayDeque<>();
+	/** 次に取得するページのトークン */
+	private String pageToken;
+	/** 最後のページを取得したか */
+	private boolean exhausted;
+	/** 取得中のページ */
+	private CompletableFuture<Gs2Paginator.Page<E>> inFlight;
+	/** ページの取得に失敗した原因 */
+	private Throwable error;
+	/** クローズ済みか */
+	private boolean closed;
+	/** 状態のロック */
+	private final ReentrantLock lock = new ReentrantLock();
+	/** ページが届いたことの通知 */
+	private final Condition arrived = lock.newCondition();
+
+	PageBuffer(Gs2Paginator.PageFetcher<E> fetcher, int prefetch, Runnable listener) {
+		this.fetcher = fetcher;
+		this.prefetch = prefetch;
+		this.listener = listener;
+	}
+
+	/**
+	 * バッファから要素を取り出す。
+	 * バッファが空の場合は待たずに null を返します。null の要素は読み飛ばします。
+	 *
+	 * @return 要素
+	 */
+	E poll() {
+		CompletableFuture<Gs2Paginator.Page<E>> request;
+		E item = null;
+		lock.lock();
+		try {
+			while(!pages.isEmpty()) {
+				Iterator<E> page = pages.peek();
+				if(page.hasNext()) {
+					item = page.next();
+					if(!page.hasNext()) {
+						pages.poll();
+					}
+					if(item != null) {
+						break;
+					}
+					continue;
+				}
+				pages.poll();
+			}
+			request = fill();
+		} finally {
+			lock.unlock();
+		}
+		send(request);
+		return item;
+	}
+
+	/**
+	 * バッファから要素を取り出す。
+	 * バッファが空の場合はページが届くまで待ちます。
+	 *
+	 * @return 要素。最後まで取り出した場合は null
+	 * @throws InterruptedException 待機中に割り込まれた場合にスローされます
+	 */
+	E take() throws InterruptedException {
+		for(;;) {
+			E item = poll();
+			if(item != null) {
+				return item;
+			}
+			lock.lock();
+			try {
+				while(pages.isEmpty() && inFlight != null && error == null && !closed) {
+					arrived.await();
+				}
+				if(pages.isEmpty() && isTerminated()) {
+					return null;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * すべての要素を取り出したか、取得に失敗して終了したか
+	 *
+	 * @return 終了した場合は true
+	 */
+	boolean isTerminated() {
+		lock.lock();
+		try {
+			return error != null || closed || (exhausted && inFlight == null && pages.isEmpty());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * ページの取得に失敗した原因を取得
+	 *
+	 * @return 原因。失敗していない場合は null
+	 */
+	Throwable getError() {
+		lock.lock();
+		try {
+			return error;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 先読みを中止してバッファを破棄する。
+	 */
+	void close() {
+		CompletableFuture<Gs2Paginator.Page<E>> request;
+		lock.lock();
+		try {
+			closed = true;
+			pages.clear();
+			request = inFlight;
+			inFlight = null;
+			arrived.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		if(request != null) {
+			request.cancel(false);
+		}
+	}
+
+	/**
+	 * 先読みが足りていなければ次のページの取得を予約する。
+	 * ロックを保持した状態で呼び出してください。
+	 *
+	 * @return 送信するリクエスト。送信しない場合は null
+	 */
+	private CompletableFuture<Gs2Paginator.Page<E>> fill() {
+		if(closed || exhausted || error != null || inFlight != null || pages.size() > prefetch) {
+			return null;
+		}
+		inFlight = new CompletableFuture<>();
+		return inFlight;
+	}
+
+	/**
+	 * 予約したページの取得を開始する。
+	 *
+	 * @param request 予約したリクエスト
+	 */
+	private void send(CompletableFuture<Gs2Paginator.Page<E>> request) {
+		if(request == null) {
+			return;
+		}
+		CompletableFuture<Gs2Paginator.Page<E>> execution;
+		try {
+			execution = fetcher.fetch(pageToken);
+		} catch (RuntimeException e) {
+			execution = new CompletableFuture<>();
+			execution.completeExceptionally(e);
+		}
+		CompletableFuture<Gs2Paginator.Page<E>> source = execution;
+		request.whenComplete((page, e) -> {
+			if(request.isCancelled()) {
+				source.cancel(false);
+			}
+		});
+		execution.whenComplete((page, e) -> onPage(request, page, e));
+	}
+
+	private void onPage(CompletableFuture<Gs2Paginator.Page<E>> request, Gs2Paginator.Page<E> page, Throwable e) {
+		CompletableFuture<Gs2Paginator.Page<E>> next;
+		lock.lock();
+		try {
+			if(inFlight != request) {
+				return;
+			}
+			inFlight = null;
+			if(e != null) {
+				error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			} else if(page == null) {
+				exhausted = true;
+			} else {
+				List<E> items = page.getItems();
+				if(items != null && !items.isEmpty()) {
+					pages.add(items.iterator());
+				}
+				pageToken = page.getNextPageToken();
+				exhausted = pageToken == null || pageToken.isEmpty();
+			}
+			next = fill();
+			arrived.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		request.complete(page);
+		send(next);
+		listener.run();
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 一覧の購読。
+ *
+ * 要求された数だけ要素を通知します。通知は同時に1スレッドからのみ行われます。
+ * ページの取得は要素の消費に合わせて行うため、要求数が多くても先読みするページ数を超えて取得することはありません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+final class PageSubscription<E> {
+
+	/** 取得済みのページ */
+	private final PageBuffer<E> buffer;
+	/** 要素を受け取る処理 */
+	private final Consumer<? super E> onNext;
+	/** 取得に失敗したときの処理 */
+	private final Consumer<Throwable> onError;
+	/** 最後まで通知したときの処理 */
+	private final Runnable onComplete;
+	/** 通知していない要求数 */
+	private final AtomicLong requested = new AtomicLong();
+	/** 通知処理の実行要求数 */
+	private final AtomicInteger wip = new AtomicInteger();
+	/** 購読を終了したか */
+	private volatile boolean done;
+
+	PageSubscription(Gs2Paginator.PageFetcher<E> fetcher, int prefetch, Consumer<? super E> onNext, Consumer<Throwable> onError, Runnable onComplete) {
+		this.buffer = new PageBuffer<>(fetcher, prefetch, this::drain);
+		this.onNext = onNext;
+		this.onError = onError;
+		this.onComplete = onComplete;
+	}
+
+	/**
+	 * 要素を要求する。
+	 *
+	 * @param n 要求数
+	 */
+	void request(long n) {
+		if(done) {
+			return;
+		}
+		if(n <= 0) {
+			terminate(new IllegalArgumentException("non-positive request: " + n));
+			return;
+		}
+		long current;
+		long next;
+		do {
+			current = requested.get();
+			next = current + n < 0 ? Long.MAX_VALUE : current + n;
+		} while(!requested.compareAndSet(current, next));
+		drain();
+	}
+
+	/**
+	 * 購読を中止する。
+	 */
+	void cancel() {
+		done = true;
+		buffer.close();
+	}
+
+	/**
+	 * 要求数の範囲で取得済みの要素を通知する。
+	 * 他のスレッドが通知中の場合は、そのスレッドに通知を引き継ぎます。
+	 */
+	void drain() {
+		if(wip.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		for(;;) {
+			long emitted = 0;
+			long limit = requested.get();
+			while(!done) {
+				boolean terminated = buffer.isTerminated();
+				E item = emitted < limit ? buffer.poll() : null;
+				if(item == null) {
+					if(terminated) {
+						Throwable error = buffer.getError();
+						if(error != null) {
+							terminate(error);
+						} else {
+							done = true;
+							onComplete.run();
+						}
+					}
+					break;
+				}
+				emitted++;
+				try {
+					onNext.accept(item);
+				} catch (RuntimeException e) {
+					terminate(e);
+				}
+			}
+			if(emitted > 0 && limit != Long.MAX_VALUE) {
+				requested.addAndGet(-emitted);
+			}
+			missed = wip.addAndGet(-missed);
+			if(missed == 0) {
+				return;
+			}
+		}
+	}
+
+	private void terminate(Throwable error) {
+		if(done) {
+			return;
+		}
+		done = true;
+		buffer.close();
+		onError.accept(error);
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.gs2.Gs2Constant;
+import io.gs2.http.Gs2RequestTarget;
+
+/**
+ * サービスごとのサーキットブレーカー。
+ *
+ * 連続して一定回数失敗すると回路を開き、一定時間リクエストを送信せずに失敗させます。
+ * 一定時間が経過すると半開状態になり、限られた数の試行リクエストが成功すれば回路を閉じます。
+ * 失敗として扱うのはタイムアウト、5xx、通信エラーです。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class CircuitBreaker {
+
+	/**
+	 * 回路の状態
+	 */
+	public enum State {
+		/** 閉じている(通常通りリクエストを送信する) */
+		CLOSED,
+		/** 開いている(リクエストを送信せずに失敗させる) */
+		OPEN,
+		/** 半開(試行リクエストのみ送信する) */
+		HALF_OPEN,
+	}
+
+	/** 回路を開くまでの連続失敗回数 */
+	private final int failureThreshold;
+	/** 回路を開いておく時間(msec) */
+	private final long openDuration;
+	/** 半開状態で同時に送信する試行リクエストの数 */
+	private final int halfOpenProbes;
+	/** モジュール・ファンクションごとに回路を分けるか */
+	private final boolean perFunction;
+	/** 回路 */
+	private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+	/**
+	 * コンストラクタ。
+	 */
+	public CircuitBreaker() {
+		this(Gs2Constant.CIRCUIT_BREAKER_FAILURE_THRESHOLD, Gs2Constant.CIRCUIT_BREAKER_OPEN_DURATION, 1, false);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param failureThreshold 回路を開くまでの連続失敗回数
+	 * @param openDuration 回路を開いておく時間(msec)
+	 * @param halfOpenProbes 半開状態で同時に送信する試行リクエストの数
+	 * @param perFunction モジュール・ファンクションごとに回路を分けるか
+	 */
+	public CircuitBreaker(int failureThreshold, long openDuration, int halfOpenProbes, boolean perFunction) {
+		if(failureThreshold < 1 || openDuration < 0 || halfOpenProbes < 1) {
+			throw new IllegalArgumentException("invalid circuit breaker");
+		}
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+		this.halfOpenProbes = halfOpenProbes;
+		this.perFunction = perFunction;
+	}
+
+	/**
+	 * アクセス先に対応する回路を取得。
+	 *
+	 * @param target アクセス先
+	 * @return 回路
+	 */
+	public Circuit getCircuit(Gs2RequestTarget target) {
+		String key = perFunction ? target.toString() : String.valueOf(target.getService());
+		Circuit circuit = circuits.get(key);
+		if(circuit == null) {
+			circuit = circuits.computeIfAbsent(key, Circuit::new);
+		}
+		return circuit;
+	}
+
+	/**
+	 * 回路の状態を取得。
+	 *
+	 * @param key サービス名。ファンクションごとに回路を分けている場合は "service:module:function"
+	 * @return 回路の状態。まだ回路が作られていない場合は {@link State#CLOSED}
+	 */
+	public State getState(String key) {
+		Circuit circuit = circuits.get(key);
+		return circuit == null ? State.CLOSED : circuit.getState();
+	}
+
+	/**
+	 * すべての回路の状態を取得。
+	 *
+	 * @return 回路のキーごとの状態
+	 */
+	public Map<String, State> getStates() {
+		Map<String, State> states = new HashMap<>();
+		for(Circuit circuit : circuits.values()) {
+			states.put(circuit.key, circuit.getState());
+		}
+		return Collections.unmodifiableMap(states);
+	}
+
+	/**
+	 * 送信の許可。
+	 * 半開状態で許可した試行リクエストの完了だけが、半開状態からの遷移に使われます。
+	 */
+	public static final class Permit {
+
+		/** 回路が閉じているときの許可 */
+		static final Permit REGULAR = new Permit(-1);
+
+		/** 試行リクエストを許可した半開状態の世代。通常の許可は -1 */
+		private final long generation;
+
+		private Permit(long generation) {
+			this.generation = generation;
+		}
+
+		/**
+		 * 半開状態の試行リクエストか
+		 *
+		 * @return 試行リクエストの場合は true
+		 */
+		public boolean isProbe() {
+			return generation >= 0;
+		}
+	}
+
+	/**
+	 * 回路
+	 */
+	public final class Circuit {
+
+		/** 回路のキー */
+		private final String key;
+		/** 状態 */
+		private volatile State state = State.CLOSED;
+		/** 連続失敗回数 */
+		private volatile int consecutiveFailures;
+		/** 回路を開いた時刻 */
+		private long openedAt;
+		/** 半開状態の世代 */
+		private long generation;
+		/** 送信中の試行リクエストの数 */
+		private int probes;
+		/** 成功した試行リクエストの数 */
+		private int probeSuccesses;
+		/** 状態の更新のロック */
+		private final ReentrantLock lock = new ReentrantLock();
+
+		Circuit(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * 回路のキーを取得。
+		 *
+		 * @return 回路のキー
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * 状態を取得。
+		 * 開いてから一定時間経過している場合も、次のリクエストまでは {@link State#OPEN} を返します。
+		 *
+		 * @return 状態
+		 */
+		public State getState() {
+			return state;
+		}
+
+		/**
+		 * リクエストを送信してよいかを判定する。
+		 * 許可を受け取った場合は、必ずその許可を指定して {@link #onSuccess(Permit)} か {@link #onFailure(Permit)}、
+		 * {@link #release(Permit)} のいずれかを呼び出してください。
+		 *
+		 * @return 送信の許可。送信できない場合は null
+		 */
+		public Permit tryAcquire() {
+			if(state == State.CLOSED) {
+				return Permit.REGULAR;
+			}
+			lock.lock();
+			try {
+				switch(state) {
+				case CLOSED:
+					return Permit.REGULAR;
+				case OPEN:
+					if(System.currentTimeMillis() - openedAt < openDuration) {
+						return null;
+					}
+					state = State.HALF_OPEN;
+					generation++;
+					probes = 1;
+					probeSuccesses = 0;
+					return new Permit(generation);
+				default:
+					if(probes >= halfOpenProbes) {
+						return null;
+					}
+					probes++;
+					return new Permit(generation);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * リクエストが成功したことを記録する。
+		 * 回路が閉じていたときに許可したリクエストは、半開状態では無視します。
+		 *
+		 * @param permit 送信の許可
+		 */
+		public void onSuccess(Permit permit) {
+			if(state == State.CLOSED && consecutiveFailures == 0) {
+				return;
+			}
+			lock.lock();
+			try {
+				if(!permit.isProbe()) {
+					if(state == State.CLOSED) {
+						consecutiveFailures = 0;
+					}
+				} else if(isCurrentProbe(permit)) {
+					probes--;
+					if(++probeSuccesses >= halfOpenProbes) {
+						state = State.CLOSED;
+						consecutiveFailures = 0;
+					}
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * リクエストが失敗したことを記録する。
+		 * 回路が閉じていたときに許可したリクエストは、半開状態では無視します。
+		 *
+		 * @param permit 送信の許可
+		 */
+		public void onFailure(Permit permit) {
+			lock.lock();
+			try {
+				if(!permit.isProbe()) {
+					if(state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+						open();
+					}
+				} else if(isCurrentProbe(permit)) {
+					probes--;
+					open();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * 結果を記録せずにリクエストを終える。
+		 * キャンセルされたリクエストなど、成否を判断できない場合に利用します。
+		 *
+		 * @param permit 送信の許可
+		 */
+		public void release(Permit permit) {
+			if(!permit.isProbe()) {
+				return;
+			}
+			lock.lock();
+			try {
+				if(isCurrentProbe(permit)) {
+					probes--;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * 現在の半開状態で許可した試行リクエストか
+		 * ロックを保持した状態で呼び出してください。
+		 *
+		 * @param permit 送信の許可
+		 * @return 現在の試行リクエストの場合は true
+		 */
+		private boolean isCurrentProbe(Permit permit) {
+			return state == State.HALF_OPEN && permit.generation == generation;
+		}
+
+		private void open() {
+			state = State.OPEN;
+			openedAt = System.currentTimeMillis();
+			consecutiveFailures = 0;
+		}
+	}
+}
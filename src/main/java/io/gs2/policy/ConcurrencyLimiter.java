@@ -0,0 +1,465 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import io.gs2.Gs2Constant;
+import io.gs2.exception.ConcurrencyLimitExceededException;
+import io.gs2.util.SchedulerUtil;
+
+/**
+ * サービスごとに同時実行数を自動調整する制限。
+ *
+ * 応答時間が最小応答時間の一定倍を超えるか、タイムアウト・5xx・通信エラーが発生すると上限を下げ(乗算的減少)、
+ * 上限近くまで利用されている状態で正常に応答すると上限を少しずつ上げます(加算的増加)。
+ * 上限を超えたリクエストは待機キューに入り、キューがあふれた場合の動作を {@link Mode} で選択できます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class ConcurrencyLimiter {
+
+	/**
+	 * 上限を超えた場合の動作
+	 */
+	public enum Mode {
+		/** 待機せずに失敗させる */
+		REJECT,
+		/** タイムアウトまで待機キューで待つ。キューがあふれた場合は失敗させる */
+		WAIT,
+		/** タイムアウトまで待機キューで待つ。キューがあふれた場合は優先度の最も低いリクエストを失敗させる */
+		SHED_LOWEST_PRIORITY,
+	}
+
+	/** 上限を下げる際の倍率 */
+	private static final double BACKOFF_RATIO = 0.9;
+	/** 混雑とみなす応答時間(最小応答時間に対する倍率) */
+	private static final double LATENCY_TOLERANCE = 2.0;
+	/** 最小応答時間を測り直す間隔(nsec) */
+	private static final long MIN_LATENCY_WINDOW = TimeUnit.SECONDS.toNanos(30);
+
+	/** 現在のスレッドから送信するリクエストの優先度 */
+	private static final ThreadLocal<Integer> PRIORITY = new ThreadLocal<>();
+
+	/** 上限の初期値 */
+	private final int initialLimit;
+	/** 上限の下限 */
+	private final int minLimit;
+	/** 上限の上限 */
+	private final int maxLimit;
+	/** 待機キューの長さ */
+	private final int maxQueueSize;
+	/** 上限を超えた場合の動作 */
+	private volatile Mode mode = Mode.WAIT;
+	/** 待機する時間の上限(msec) */
+	private volatile long timeout = Gs2Constant.TIMEOUT;
+	/** サービスごとの制限 */
+	private final ConcurrentHashMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+	/**
+	 * コンストラクタ。
+	 */
+	public ConcurrencyLimiter() {
+		this(Gs2Constant.CONCURRENCY_LIMIT, 1, Gs2Constant.MAX_CONNECTIONS_PER_ROUTE, Gs2Constant.CONCURRENCY_LIMIT_QUEUE_SIZE);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param initialLimit 上限の初期値
+	 * @param minLimit 上限の下限
+	 * @param maxLimit 上限の上限
+	 * @param maxQueueSize 待機キューの長さ
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueueSize) {
+		if(minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || maxQueueSize < 0) {
+			throw new IllegalArgumentException("invalid concurrency limit");
+		}
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * 上限を超えた場合の動作を設定
+	 *
+	 * @param mode 上限を超えた場合の動作
+	 * @return this
+	 */
+	public ConcurrencyLimiter withMode(Mode mode) {
+		this.mode = mode;
+		return this;
+	}
+
+	/**
+	 * 待機キューで待つ時間の上限を設定
+	 *
+	 * @param timeout 待機する時間の上限(msec)
+	 * @return this
+	 */
+	public ConcurrencyLimiter withTimeout(long timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * 優先度を指定してGS2の呼び出しを行う。
+	 * 処理中に現在のスレッドから送信したリクエストに優先度が設定されます。
+	 *
+	 * @param <V> 戻り値の型
+	 * @param priority 優先度。大きいほど優先される。既定値は 0
+	 * @param action 処理
+	 * @return 処理の戻り値
+	 */
+	public static <V> V callWithPriority(int priority, Supplier<V> action) {
+		Integer previous = PRIORITY.get();
+		PRIORITY.set(priority);
+		try {
+			return action.get();
+		} finally {
+			if(previous == null) {
+				PRIORITY.remove();
+			} else {
+				PRIORITY.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * 現在のスレッドから送信するリクエストの優先度を取得。
+	 *
+	 * @return 優先度
+	 */
+	public static int getCurrentPriority() {
+		Integer priority = PRIORITY.get();
+		return priority == null ? 0 : priority;
+	}
+
+	/**
+	 * サービスに対応する制限を取得。
+	 *
+	 * @param service サービス
+	 * @return 制限
+	 */
+	public Limit getLimit(String service) {
+		String key = String.valueOf(service);
+		Limit limit = limits.get(key);
+		if(limit == null) {
+			limit = limits.computeIfAbsent(key, Limit::new);
+		}
+		return limit;
+	}
+
+	/**
+	 * すべてのサービスの現在の上限を取得。
+	 *
+	 * @return サービスごとの上限
+	 */
+	public Map<String, Integer> getLimits() {
+		Map<String, Integer> result = new HashMap<>();
+		for(Limit limit : limits.values()) {
+			result.put(limit.service, limit.getLimit());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * サービスごとの制限
+	 */
+	public final class Limit {
+
+		/** サービス */
+		private final String service;
+		/** 上限 */
+		private double limit = initialLimit;
+		/** 実行中のリクエストの数 */
+		private int inFlight;
+		/** 待機キュー(優先度の高い順、同じ優先度では古い順) */
+		private final TreeSet<Waiter> queue = new TreeSet<>(Comparator
+				.comparingInt((Waiter waiter) -> -waiter.priority)
+				.thenComparingLong(waiter -> waiter.sequence));
+		/** 待機キューに入った順番 */
+		private long sequence;
+		/** 最小応答時間(nsec) */
+		private long minLatency;
+		/** 最小応答時間を測り始めた時刻(nsec) */
+		private long minLatencySince = System.nanoTime();
+		/** 最後に上限を下げた時刻(nsec) */
+		private long decreasedAt;
+		/** 状態の更新のロック */
+		private final ReentrantLock lock = new ReentrantLock();
+
+		Limit(String service) {
+			this.service = service;
+		}
+
+		/**
+		 * 実行枠を取得する。
+		 * 完了した Future を受け取った場合は、必ず {@link #release(long, boolean)} か {@link #release()} を呼び出してください。
+		 * 実行枠を取得できなかった場合は {@link ConcurrencyLimitExceededException} で失敗します。
+		 *
+		 * @param priority 優先度
+		 * @return 実行枠を取得できたら完了する Future
+		 */
+		public CompletableFuture<Void> acquire(int priority) {
+			Waiter shed;
+			Waiter waiter;
+			lock.lock();
+			try {
+				if(inFlight < (int)limit && queue.isEmpty()) {
+					inFlight++;
+					return CompletableFuture.completedFuture(null);
+				}
+				Mode mode = ConcurrencyLimiter.this.mode;
+				if(mode == Mode.REJECT) {
+					return rejected("concurrency limit exceeded: " + service);
+				}
+				shed = null;
+				if(queue.size() >= maxQueueSize) {
+					if(mode != Mode.SHED_LOWEST_PRIORITY || queue.isEmpty() || queue.last().priority >= priority) {
+						return rejected("concurrency limit queue is full: " + service);
+					}
+					shed = queue.pollLast();
+				}
+				waiter = new Waiter(priority, sequence++);
+				queue.add(waiter);
+			} finally {
+				lock.unlock();
+			}
+			if(shed != null) {
+				shed.cancelTimeout();
+				shed.future.completeExceptionally(new ConcurrencyLimitExceededException("shed by higher priority request: " + service));
+			}
+			waiter.timeout = SchedulerUtil.getScheduler().schedule(() -> {
+				if(remove(waiter)) {
+					waiter.future.completeExceptionally(new ConcurrencyLimitExceededException("concurrency limit wait timed out: " + service));
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+			return waiter.future;
+		}
+
+		/**
+		 * 実行枠の取得を取りやめる。
+		 * すでに実行枠を取得できていた場合は解放します。
+		 *
+		 * @param future {@link #acquire(int)} が返した Future
+		 */
+		public void cancel(CompletableFuture<Void> future) {
+			if(future.isDone()) {
+				if(!future.isCompletedExceptionally()) {
+					release();
+				}
+				return;
+			}
+			Waiter target = null;
+			lock.lock();
+			try {
+				for(Waiter waiter : queue) {
+					if(waiter.future == future) {
+						target = waiter;
+						break;
+					}
+				}
+				if(target != null) {
+					queue.remove(target);
+				}
+			} finally {
+				lock.unlock();
+			}
+			if(target != null) {
+				target.cancelTimeout();
+				target.future.cancel(false);
+			} else {
+				future.thenRun(this::release);
+			}
+		}
+
+		/**
+		 * 応答時間と結果を記録して実行枠を解放する。
+		 *
+		 * @param latency 応答時間(nsec)
+		 * @param dropped タイムアウト・5xx・通信エラーの場合は true
+		 */
+		public void release(long latency, boolean dropped) {
+			List<Waiter> granted;
+			lock.lock();
+			try {
+				update(latency, dropped);
+				granted = releaseLocked();
+			} finally {
+				lock.unlock();
+			}
+			grant(granted);
+		}
+
+		/**
+		 * 結果を記録せずに実行枠を解放する。
+		 */
+		public void release() {
+			List<Waiter> granted;
+			lock.lock();
+			try {
+				granted = releaseLocked();
+			} finally {
+				lock.unlock();
+			}
+			grant(granted);
+		}
+
+		/**
+		 * 現在の上限を取得。
+		 *
+		 * @return 上限
+		 */
+		public int getLimit() {
+			lock.lock();
+			try {
+				return (int)limit;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * 実行中のリクエストの数を取得。
+		 *
+		 * @return 実行中のリクエストの数
+		 */
+		public int getInFlight() {
+			lock.lock();
+			try {
+				return inFlight;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * 待機中のリクエストの数を取得。
+		 *
+		 * @return 待機中のリクエストの数
+		 */
+		public int getQueueSize() {
+			lock.lock();
+			try {
+				return queue.size();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void update(long latency, boolean dropped) {
+			long now = System.nanoTime();
+			if(now - minLatencySince > MIN_LATENCY_WINDOW) {
+				minLatency = 0;
+				minLatencySince = now;
+			}
+			if(!dropped && (minLatency == 0 || latency < minLatency)) {
+				minLatency = latency;
+			}
+			boolean congested = dropped || latency > minLatency * LATENCY_TOLERANCE;
+			if(congested) {
+				if(now - decreasedAt > Math.max(minLatency, 1)) {
+					limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+					decreasedAt = now;
+				}
+			} else if(inFlight * 2 >= limit) {
+				limit = Math.min(maxLimit, limit + 1 / limit);
+			}
+		}
+
+		private List<Waiter> releaseLocked() {
+			inFlight--;
+			List<Waiter> granted = null;
+			while(inFlight < (int)limit && !queue.isEmpty()) {
+				if(granted == null) {
+					granted = new ArrayList<>();
+				}
+				granted.add(queue.pollFirst());
+				inFlight++;
+			}
+			return granted;
+		}
+
+		private void grant(List<Waiter> granted) {
+			if(granted == null) {
+				return;
+			}
+			for(Waiter waiter : granted) {
+				waiter.cancelTimeout();
+				if(!waiter.future.complete(null)) {
+					release();
+				}
+			}
+		}
+
+		private boolean remove(Waiter waiter) {
+			lock.lock();
+			try {
+				return queue.remove(waiter);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private static CompletableFuture<Void> rejected(String message) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		future.completeExceptionally(new ConcurrencyLimitExceededException(message));
+		return future;
+	}
+
+	/**
+	 * 待機中のリクエスト
+	 */
+	private static final class Waiter {
+
+		/** 優先度 */
+		final int priority;
+		/** 待機キューに入った順番 */
+		final long sequence;
+		/** 実行枠を取得できたら完了する Future */
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		/** タイムアウトの処理 */
+		volatile ScheduledFuture<?> timeout;
+
+		Waiter(int priority, long sequence) {
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		void cancelTimeout() {
+			ScheduledFuture<?> timeout = this.timeout;
+			if(timeout != null) {
+				timeout.cancel(false);
+			}
+		}
+	}
+}
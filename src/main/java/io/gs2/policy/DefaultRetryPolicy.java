@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import io.gs2.Gs2Constant;
+
+/**
+ * 指数バックオフとフルジッターによるリトライポリシー。
+ *
+ * 待機時間は 0 から min(最大待機時間, 基準待機時間 * 2^リトライ回数) の間でランダムに決まるため、
+ * 複数のプロセスが同時にリトライし続けることを避けられます。
+ * {@link RetryBudget} を設定すると、リトライの量を通常のリクエスト量の一定割合に抑えます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class DefaultRetryPolicy implements RetryPolicy {
+
+	/** 最大リトライ回数 */
+	private int maxRetries = Gs2Constant.RETRY_NUM - 1;
+	/** 基準待機時間(msec) */
+	private long baseDelay = Gs2Constant.RETRY_WAIT;
+	/** 最大待機時間(msec) */
+	private long maxDelay = Gs2Constant.MAX_RETRY_WAIT;
+	/** リトライするステータスコード */
+	private final Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(504));
+	/** リトライする通信エラー */
+	private final List<Class<? extends Exception>> retryableExceptions = new ArrayList<>(Arrays.asList(
+			SocketTimeoutException.class,
+			ConnectTimeoutException.class,
+			ConnectException.class));
+	/** リトライの予算 */
+	private RetryBudget budget;
+
+	/**
+	 * 最大リトライ回数を設定
+	 *
+	 * @param maxRetries 最大リトライ回数
+	 * @return this
+	 */
+	public DefaultRetryPolicy withMaxRetries(int maxRetries) {
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * 基準待機時間を設定
+	 *
+	 * @param baseDelay 基準待機時間(msec)
+	 * @return this
+	 */
+	public DefaultRetryPolicy withBaseDelay(long baseDelay) {
+		this.baseDelay = baseDelay;
+		return this;
+	}
+
+	/**
+	 * 最大待機時間を設定
+	 *
+	 * @param maxDelay 最大待機時間(msec)
+	 * @return this
+	 */
+	public DefaultRetryPolicy withMaxDelay(long maxDelay) {
+		this.maxDelay = maxDelay;
+		return this;
+	}
+
+	/**
+	 * リトライするステータスコードを追加
+	 *
+	 * @param statusCodes ステータスコード
+	 * @return this
+	 */
+	public DefaultRetryPolicy withRetryableStatusCodes(int... statusCodes) {
+		for(int statusCode : statusCodes) {
+			retryableStatusCodes.add(statusCode);
+		}
+		return this;
+	}
+
+	/**
+	 * リトライする通信エラーを追加
+	 * サブクラスの例外もリトライの対象になります。
+	 *
+	 * @param exception 通信エラーのクラス
+	 * @return this
+	 */
+	public DefaultRetryPolicy withRetryableException(Class<? extends Exception> exception) {
+		retryableExceptions.add(exception);
+		return this;
+	}
+
+	/**
+	 * リトライの予算を設定
+	 *
+	 * @param budget リトライの予算。null の場合は制限しない
+	 * @return this
+	 */
+	public DefaultRetryPolicy withBudget(RetryBudget budget) {
+		this.budget = budget;
+		return this;
+	}
+
+	/**
+	 * リトライの予算を取得
+	 *
+	 * @return リトライの予算
+	 */
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	@Override
+	public void onRequest(HttpUriRequest request) {
+		if(budget != null) {
+			budget.deposit();
+		}
+	}
+
+	@Override
+	public long getRetryDelay(HttpUriRequest request, int statusCode, Exception exception, int retryCount) {
+		if(retryCount >= maxRetries || !isRetryable(statusCode, exception)) {
+			return -1;
+		}
+		if(budget != null && !budget.tryWithdraw()) {
+			return -1;
+		}
+		long ceiling = retryCount < 31 ? Math.min(maxDelay, baseDelay * (1L << retryCount)) : maxDelay;
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	/**
+	 * リトライの対象か
+	 *
+	 * @param statusCode ステータスコード
+	 * @param exception 通信エラー
+	 * @return リトライの対象の場合は true
+	 */
+	protected boolean isRetryable(int statusCode, Exception exception) {
+		if(exception == null) {
+			return retryableStatusCodes.contains(statusCode);
+		}
+		for(Class<? extends Exception> retryableException : retryableExceptions) {
+			if(retryableException.isInstance(exception)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+
+import io.gs2.Gs2Constant;
+import io.gs2.http.Gs2RequestTarget;
+import io.gs2.util.SchedulerUtil;
+
+/**
+ * GETリクエストのヘッジ。
+ *
+ * 一定時間内に応答がない場合は同じリクエストを別のコネクションで送信し、先に返った応答を採用して残りを取り消します。
+ * 待機時間はモジュール・ファンクションごとに観測した応答時間のパーセンタイルから決定します。
+ * 障害時に負荷を増幅しないよう、ヘッジリクエストの数はリクエスト数に対する割合で制限します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class HedgingPolicy {
+
+	/** モジュール・ファンクションごとに保持する応答時間の数 */
+	private static final int WINDOW_SIZE = 256;
+	/** パーセンタイルから待機時間を求めるのに必要な応答時間の数 */
+	private static final int MIN_SAMPLES = 32;
+	/** 待機時間を再計算する間隔(応答数) */
+	private static final int RECALCULATE_INTERVAL = 16;
+
+	/** ヘッジリクエストの予算 */
+	private final RetryBudget budget;
+	/** 待機時間の初期値(msec) */
+	private volatile long delay = Gs2Constant.HEDGE_DELAY;
+	/** 待機時間の下限(msec) */
+	private volatile long minDelay = 1;
+	/** 待機時間を決めるパーセンタイル。0 の場合は初期値を常に使用する */
+	private volatile double percentile = 0.95;
+	/** モジュール・ファンクションごとの応答時間 */
+	private final ConcurrentHashMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+	/** 送信したヘッジリクエストの数 */
+	private final AtomicLong hedged = new AtomicLong();
+
+	/**
+	 * コンストラクタ。
+	 */
+	public HedgingPolicy() {
+		this(Gs2Constant.HEDGE_RATIO, 10);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param ratio リクエスト数に対するヘッジリクエスト数の上限の割合
+	 * @param maxHedges 積み立てられるヘッジリクエスト数の上限
+	 */
+	public HedgingPolicy(double ratio, int maxHedges) {
+		this.budget = new RetryBudget(ratio, maxHedges);
+	}
+
+	/**
+	 * 応答時間を観測するまでの待機時間を設定
+	 *
+	 * @param delay 待機時間(msec)
+	 * @return this
+	 */
+	public HedgingPolicy withDelay(long delay) {
+		this.delay = delay;
+		return this;
+	}
+
+	/**
+	 * 待機時間の下限を設定
+	 *
+	 * @param minDelay 待機時間の下限(msec)
+	 * @return this
+	 */
+	public HedgingPolicy withMinDelay(long minDelay) {
+		this.minDelay = minDelay;
+		return this;
+	}
+
+	/**
+	 * 待機時間を決めるパーセンタイルを設定
+	 * 0 を指定すると観測した応答時間を使わず、常に {@link #withDelay(long)} の値を使用します。
+	 *
+	 * @param percentile パーセンタイル(0.0〜1.0)
+	 * @return this
+	 */
+	public HedgingPolicy withPercentile(double percentile) {
+		if(percentile < 0 || percentile > 1) {
+			throw new IllegalArgumentException("invalid percentile");
+		}
+		this.percentile = percentile;
+		return this;
+	}
+
+	/**
+	 * ヘッジの対象となるリクエストか
+	 * 冪等な GET リクエストのみを対象とします。
+	 *
+	 * @param request リクエスト
+	 * @return ヘッジの対象となる場合は true
+	 */
+	public boolean isHedgeable(HttpUriRequest request) {
+		return "GET".equals(request.getMethod()) && request instanceof HttpRequestBase;
+	}
+
+	/**
+	 * ヘッジリクエストを送信するまでの待機時間を取得。
+	 *
+	 * @param target アクセス先
+	 * @return 待機時間(msec)
+	 */
+	public long getDelay(Gs2RequestTarget target) {
+		LatencyWindow window = percentile == 0 ? null : latencies.get(target.toString());
+		long observed = window == null ? -1 : window.getPercentile();
+		return Math.max(minDelay, observed < 0 ? delay : observed);
+	}
+
+	/**
+	 * 送信したヘッジリクエストの数を取得。
+	 *
+	 * @return 送信したヘッジリクエストの数
+	 */
+	public long getHedgedCount() {
+		return hedged.get();
+	}
+
+	/**
+	 * リクエストを送信し、応答が遅い場合はヘッジリクエストを送信する。
+	 * 先に返った応答(5xx 以外)を採用し、残りのリクエストは取り消します。
+	 * すべてのリクエストが失敗した場合は最後の結果を返します。
+	 *
+	 * @param target アクセス先
+	 * @param request リクエスト
+	 * @param executor リクエストを非同期に送信する関数
+	 * @return 採用した応答
+	 */
+	public CompletableFuture<HttpResponse> execute(Gs2RequestTarget target, HttpUriRequest request, Function<HttpUriRequest, CompletableFuture<HttpResponse>> executor) {
+		budget.deposit();
+		Race race = new Race(target, executor);
+		race.send(request);
+		ScheduledFuture<?> timer = SchedulerUtil.getScheduler().schedule(() -> {
+			if(!race.result.isDone() && budget.tryWithdraw()) {
+				hedged.incrementAndGet();
+				race.send(copy(request));
+			}
+		}, getDelay(target), TimeUnit.MILLISECONDS);
+		race.result.whenComplete((response, e) -> {
+			timer.cancel(false);
+			race.cancelAll();
+		});
+		return race.result;
+	}
+
+	/**
+	 * 応答時間を記録する。
+	 *
+	 * @param target アクセス先
+	 * @param latency 応答時間(nsec)
+	 */
+	private void onResponse(Gs2RequestTarget target, long latency) {
+		if(percentile == 0) {
+			return;
+		}
+		LatencyWindow window = latencies.get(target.toString());
+		if(window == null) {
+			window = latencies.computeIfAbsent(target.toString(), key -> new LatencyWindow());
+		}
+		window.add(TimeUnit.NANOSECONDS.toMillis(latency), percentile);
+	}
+
+	private static HttpUriRequest copy(HttpUriRequest request) {
+		try {
+			return (HttpUriRequest)((HttpRequestBase)request).clone();
+		} catch (CloneNotSupportedException e) {
+			return request;
+		}
+	}
+
+	/**
+	 * 同じリクエストの競争
+	 */
+	private final class Race {
+
+		/** アクセス先 */
+		final Gs2RequestTarget target;
+		/** リクエストを非同期に送信する関数 */
+		final Function<HttpUriRequest, CompletableFuture<HttpResponse>> executor;
+		/** 採用した応答 */
+		final CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+		/** 送信中のリクエスト */
+		final List<CompletableFuture<HttpResponse>> executions = new ArrayList<>(2);
+		/** 応答を待っているリクエストの数 */
+		int pending;
+
+		Race(Gs2RequestTarget target, Function<HttpUriRequest, CompletableFuture<HttpResponse>> executor) {
+			this.target = target;
+			this.executor = executor;
+		}
+
+		void send(HttpUriRequest request) {
+			synchronized (this) {
+				pending++;
+			}
+			long sentAt = System.nanoTime();
+			CompletableFuture<HttpResponse> execution;
+			try {
+				execution = executor.apply(request);
+			} catch (RuntimeException e) {
+				execution = new CompletableFuture<>();
+				execution.completeExceptionally(e);
+			}
+			synchronized (this) {
+				executions.add(execution);
+			}
+			if(result.isDone()) {
+				execution.cancel(false);
+			}
+			execution.whenComplete((response, e) -> {
+				if(response != null) {
+					onResponse(target, System.nanoTime() - sentAt);
+				}
+				boolean last;
+				synchronized (this) {
+					last = --pending == 0;
+				}
+				boolean answered = response != null && response.getStatusLine().getStatusCode() < 500;
+				boolean adopted;
+				if(answered || last) {
+					adopted = e == null ? result.complete(response) : result.completeExceptionally(e);
+				} else {
+					adopted = false;
+				}
+				if(!adopted && response != null) {
+					EntityUtils.consumeQuietly(response.getEntity());
+				}
+			});
+		}
+
+		void cancelAll() {
+			List<CompletableFuture<HttpResponse>> executions;
+			synchronized (this) {
+				executions = new ArrayList<>(this.executions);
+			}
+			for(CompletableFuture<HttpResponse> execution : executions) {
+				execution.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * 直近の応答時間
+	 */
+	private static final class LatencyWindow {
+
+		/** 応答時間(msec)のリングバッファ */
+		private final long[] samples = new long[WINDOW_SIZE];
+		/** 記録した応答時間の数 */
+		private long count;
+		/** 計算済みのパーセンタイル */
+		private volatile long percentile = -1;
+		/** リングバッファの更新のロック */
+		private final ReentrantLock lock = new ReentrantLock();
+
+		void add(long latency, double percentile) {
+			long[] sorted = null;
+			lock.lock();
+			try {
+				samples[(int)(count++ % WINDOW_SIZE)] = latency;
+				if(count >= MIN_SAMPLES && count % RECALCULATE_INTERVAL == 0) {
+					sorted = Arrays.copyOf(samples, (int)Math.min(count, WINDOW_SIZE));
+				}
+			} finally {
+				lock.unlock();
+			}
+			if(sorted != null) {
+				Arrays.sort(sorted);
+				this.percentile = sorted[Math.min(sorted.length - 1, (int)(sorted.length * percentile))];
+			}
+		}
+
+		long getPercentile() {
+			return percentile;
+		}
+	}
+}
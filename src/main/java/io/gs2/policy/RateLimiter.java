@@ -0,0 +1,285 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+
+import io.gs2.Gs2Constant;
+import io.gs2.model.BasicGs2Credential;
+import io.gs2.model.IGs2Credential;
+
+/**
+ * 認証情報・サービスごとのトークンバケットによるレート制限。
+ *
+ * 契約上の上限を設定しておくことで、サーバに拒否されるリクエストを送信せずに済みます。
+ * サーバから {@link io.gs2.exception.QuotaExceedException} が返ると送信レートを半分に下げ、
+ * その後は1秒ごとに設定値の一定割合ずつ回復させます。
+ *
+ * {@link BasicGs2Credential} はクライアントIDごとにバケットを共有します。
+ * バケットを保持する認証情報の数には上限があり、超えた場合は最も長く使われていないものから破棄します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RateLimiter {
+
+	/**
+	 * トークンが足りない場合の動作
+	 */
+	public enum Mode {
+		/** トークンが補充されるまで待機する */
+		BLOCK,
+		/** タイムアウトまでに補充される場合のみ待機する */
+		TIMEOUT,
+		/** 待機せずに失敗させる */
+		REJECT,
+	}
+
+	/** 送信レートの下限(設定値に対する割合) */
+	private static final double MIN_RATE_RATIO = 0.05;
+	/** 1秒あたりに回復する送信レート(設定値に対する割合) */
+	private static final double RECOVERY_RATIO_PER_SECOND = 0.05;
+	/** 送信レートを下げてから再度下げるまでの間隔(nsec) */
+	private static final long DECREASE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	/** サービスごとの上限が未設定の場合の上限(回/秒)。0 以下の場合は制限しない */
+	private final double defaultPermitsPerSecond;
+	/** サービスごとの上限(回/秒) */
+	private final ConcurrentHashMap<String, Double> limits = new ConcurrentHashMap<>();
+	/** トークンが足りない場合の動作 */
+	private volatile Mode mode = Mode.BLOCK;
+	/** 待機する時間の上限(msec) */
+	private volatile long timeout = Gs2Constant.TIMEOUT;
+	/** バケットを保持する認証情報の最大数 */
+	private volatile int maxCredentials = Gs2Constant.RATE_LIMITER_MAX_CREDENTIALS;
+	/** 認証情報・サービスごとのバケット(アクセス順) */
+	private final LinkedHashMap<Object, ConcurrentHashMap<String, Bucket>> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param permitsPerSecond サービスごとの上限が未設定の場合の上限(回/秒)。0 以下の場合は制限しない
+	 */
+	public RateLimiter(double permitsPerSecond) {
+		this.defaultPermitsPerSecond = permitsPerSecond;
+	}
+
+	/**
+	 * サービスごとの上限を設定
+	 * すでにリクエストを送信したサービスには反映されません。
+	 *
+	 * @param service サービス
+	 * @param permitsPerSecond 上限(回/秒)。0 以下の場合は制限しない
+	 * @return this
+	 */
+	public RateLimiter withLimit(String service, double permitsPerSecond) {
+		limits.put(service, permitsPerSecond);
+		return this;
+	}
+
+	/**
+	 * トークンが足りない場合の動作を設定
+	 *
+	 * @param mode トークンが足りない場合の動作
+	 * @return this
+	 */
+	public RateLimiter withMode(Mode mode) {
+		this.mode = mode;
+		return this;
+	}
+
+	/**
+	 * {@link Mode#TIMEOUT} で待機する時間の上限を設定
+	 *
+	 * @param timeout 待機する時間の上限(msec)
+	 * @return this
+	 */
+	public RateLimiter withTimeout(long timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * バケットを保持する認証情報の最大数を設定
+	 *
+	 * @param maxCredentials バケットを保持する認証情報の最大数
+	 * @return this
+	 */
+	public RateLimiter withMaxCredentials(int maxCredentials) {
+		if(maxCredentials < 1) {
+			throw new IllegalArgumentException("invalid max credentials");
+		}
+		this.maxCredentials = maxCredentials;
+		return this;
+	}
+
+	/**
+	 * バケットを保持している認証情報の数を取得。
+	 *
+	 * @return 認証情報の数
+	 */
+	public int getCredentialCount() {
+		synchronized (buckets) {
+			return buckets.size();
+		}
+	}
+
+	/**
+	 * リクエスト1回分のトークンを予約する。
+	 *
+	 * @param credential 認証情報
+	 * @param service サービス
+	 * @return 送信までに待機する時間(msec)。トークンを予約できなかった場合は負の値
+	 */
+	public long reserve(IGs2Credential credential, String service) {
+		Bucket bucket = getBucket(credential, service);
+		return bucket == null ? 0 : bucket.reserve(mode, timeout);
+	}
+
+	/**
+	 * サーバから {@link io.gs2.exception.QuotaExceedException} が返ったことを記録する。
+	 *
+	 * @param credential 認証情報
+	 * @param service サービス
+	 */
+	public void onQuotaExceeded(IGs2Credential credential, String service) {
+		Bucket bucket = getBucket(credential, service);
+		if(bucket != null) {
+			bucket.decrease();
+		}
+	}
+
+	/**
+	 * 現在の送信レートを取得。
+	 *
+	 * @param credential 認証情報
+	 * @param service サービス
+	 * @return 送信レート(回/秒)。制限しない場合は負の値
+	 */
+	public double getRate(IGs2Credential credential, String service) {
+		Bucket bucket = getBucket(credential, service);
+		return bucket == null ? -1 : bucket.getRate();
+	}
+
+	private Bucket getBucket(IGs2Credential credential, String service) {
+		if(credential == null || service == null) {
+			return null;
+		}
+		Object key = credential instanceof BasicGs2Credential ? ((BasicGs2Credential)credential).getClientId() : credential;
+		ConcurrentHashMap<String, Bucket> services;
+		synchronized (buckets) {
+			services = buckets.get(key);
+			if(services == null) {
+				services = new ConcurrentHashMap<>();
+				buckets.put(key, services);
+				Iterator<Object> iterator = buckets.keySet().iterator();
+				while(buckets.size() > maxCredentials && iterator.hasNext()) {
+					iterator.next();
+					iterator.remove();
+				}
+			}
+		}
+		Bucket bucket = services.get(service);
+		if(bucket == null) {
+			double permitsPerSecond = limits.getOrDefault(service, defaultPermitsPerSecond);
+			bucket = services.computeIfAbsent(service, name -> new Bucket(permitsPerSecond));
+		}
+		return bucket.limit > 0 ? bucket : null;
+	}
+
+	/**
+	 * トークンバケット
+	 */
+	private static final class Bucket {
+
+		/** 設定された上限(回/秒) */
+		final double limit;
+		/** 現在の送信レート(回/秒) */
+		double rate;
+		/** 残りのトークン。予約済みの分だけ負になる */
+		double tokens;
+		/** 最後にトークンを補充した時刻(nsec) */
+		long refilledAt = System.nanoTime();
+		/** 最後に送信レートを下げた時刻(nsec) */
+		long decreasedAt = refilledAt - DECREASE_INTERVAL;
+		/** トークンの更新のロック */
+		final ReentrantLock lock = new ReentrantLock();
+
+		Bucket(double limit) {
+			this.limit = limit;
+			this.rate = limit;
+			this.tokens = Math.max(1, limit);
+		}
+
+		long reserve(Mode mode, long timeout) {
+			lock.lock();
+			try {
+				refill(System.nanoTime());
+				if(tokens >= 1) {
+					tokens -= 1;
+					return 0;
+				}
+				long wait = (long)Math.ceil((1 - tokens) / rate * 1000);
+				if(mode == Mode.REJECT || (mode == Mode.TIMEOUT && wait > timeout)) {
+					return -1;
+				}
+				tokens -= 1;
+				return wait;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		void decrease() {
+			lock.lock();
+			try {
+				long now = System.nanoTime();
+				refill(now);
+				if(now - decreasedAt < DECREASE_INTERVAL) {
+					return;
+				}
+				decreasedAt = now;
+				rate = Math.max(limit * MIN_RATE_RATIO, rate / 2);
+				tokens = Math.min(tokens, 0);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		double getRate() {
+			lock.lock();
+			try {
+				refill(System.nanoTime());
+				return rate;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void refill(long now) {
+			double elapsed = (now - refilledAt) / 1e9;
+			refilledAt = now;
+			if(rate < limit) {
+				rate = Math.min(limit, rate + limit * RECOVERY_RATIO_PER_SECOND * elapsed);
+			}
+			tokens = Math.min(Math.max(1, rate), tokens + rate * elapsed);
+		}
+	}
+}
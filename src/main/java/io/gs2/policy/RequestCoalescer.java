@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+import io.gs2.util.RequestKeyUtil;
+
+/**
+ * 同一のGETリクエストの集約。
+ *
+ * {@link RequestKeyUtil#toKey(HttpUriRequest)} とレスポンスのクラスが同じリクエストが同時に実行された場合、
+ * 実際に送信するのは最初の1件だけにし、他の呼び出し元は同じ結果または例外を受け取ります。
+ * 結果のオブジェクトは呼び出し元の間で共有されるため、変更しないでください。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RequestCoalescer {
+
+	/** 実行中のリクエスト */
+	private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	/** 集約したリクエストの数 */
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * 集約の対象となるリクエストか
+	 * 冪等な GET リクエストのみを対象とします。
+	 *
+	 * @param request リクエスト
+	 * @return 集約の対象となる場合は true
+	 */
+	public boolean isCoalescible(HttpUriRequest request) {
+		return "GET".equals(request.getMethod());
+	}
+
+	/**
+	 * 実行中のリクエストの数を取得。
+	 *
+	 * @return 実行中のリクエストの数
+	 */
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	/**
+	 * 実行中のリクエストに集約した呼び出しの数を取得。
+	 *
+	 * @return 集約した呼び出しの数
+	 */
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	/**
+	 * リクエストを実行する。
+	 * 同じリクエストが実行中の場合は、その結果を待って返します。
+	 *
+	 * @param <U> 結果の型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @param action リクエストを実行する関数
+	 * @return レスポンス
+	 */
+	@SuppressWarnings("unchecked")
+	public <U> U execute(HttpUriRequest request, Class<?> clazz, Supplier<U> action) {
+		Key key = new Key(request, clazz);
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> current = inFlight.putIfAbsent(key, future);
+		if(current != null) {
+			coalesced.incrementAndGet();
+			return (U)await(current);
+		}
+		try {
+			U value = action.get();
+			future.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * リクエストを非同期に実行する。
+	 * 同じリクエストが実行中の場合は、その結果を返します。
+	 * 返した Future を取り消しても、実行中のリクエストは取り消されません。
+	 *
+	 * @param <U> 結果の型
+	 * @param request リクエスト
+	 * @param clazz レスポンスのクラス
+	 * @param action リクエストを非同期に実行する関数
+	 * @return レスポンス
+	 */
+	@SuppressWarnings("unchecked")
+	public <U> CompletableFuture<U> executeAsync(HttpUriRequest request, Class<?> clazz, Supplier<CompletableFuture<U>> action) {
+		Key key = new Key(request, clazz);
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> current = inFlight.putIfAbsent(key, future);
+		if(current != null) {
+			coalesced.incrementAndGet();
+		} else {
+			current = future;
+			CompletableFuture<U> execution;
+			try {
+				execution = action.get();
+			} catch (RuntimeException e) {
+				execution = new CompletableFuture<>();
+				execution.completeExceptionally(e);
+			}
+			execution.whenComplete((value, e) -> {
+				inFlight.remove(key, future);
+				if(e != null) {
+					future.completeExceptionally(e);
+				} else {
+					future.complete(value);
+				}
+			});
+		}
+		CompletableFuture<U> result = new CompletableFuture<>();
+		current.whenComplete((value, e) -> {
+			if(e != null) {
+				result.completeExceptionally(e);
+			} else {
+				result.complete((U)value);
+			}
+		});
+		return result;
+	}
+
+	private static Object await(CompletableFuture<Object> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw cause instanceof RuntimeException ? (RuntimeException)cause : new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * 集約の判定に使うキー
+	 */
+	private static final class Key {
+
+		/** メソッド、URL、ヘッダー */
+		final String request;
+		/** レスポンスのクラス */
+		final Class<?> clazz;
+
+		Key(HttpUriRequest request, Class<?> clazz) {
+			this.request = RequestKeyUtil.toKey(request);
+			this.clazz = clazz;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)obj;
+			return request.equals(other.request) && clazz == other.clazz;
+		}
+
+		@Override
+		public int hashCode() {
+			return request.hashCode() * 31 + (clazz == null ? 0 : clazz.hashCode());
+		}
+	}
+}
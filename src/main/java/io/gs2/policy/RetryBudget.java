@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * リトライの予算。
+ *
+ * リクエストのたびにトークンを積み立て、リトライのたびに1トークンを消費するトークンバケットです。
+ * リトライの量を通常のリクエスト量の一定割合に抑えます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RetryBudget {
+
+	/** トークンの固定小数点の倍率 */
+	private static final long SCALE = 1000;
+
+	/** リクエストごとに積み立てるトークン(固定小数点) */
+	private final long deposit;
+	/** トークンの上限(固定小数点) */
+	private final long capacity;
+	/** 残りのトークン(固定小数点) */
+	private final AtomicLong balance;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param ratio リクエスト数に対するリトライ数の上限の割合
+	 * @param maxRetries 積み立てられるリトライ回数の上限
+	 */
+	public RetryBudget(double ratio, int maxRetries) {
+		if(ratio < 0 || maxRetries < 0) {
+			throw new IllegalArgumentException("invalid retry budget");
+		}
+		this.deposit = (long)(ratio * SCALE);
+		this.capacity = maxRetries * SCALE;
+		this.balance = new AtomicLong(capacity);
+	}
+
+	/**
+	 * リクエスト1回分のトークンを積み立てる。
+	 */
+	public void deposit() {
+		long current;
+		do {
+			current = balance.get();
+			if(current >= capacity) {
+				return;
+			}
+		} while(!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+	}
+
+	/**
+	 * リトライ1回分のトークンを消費する。
+	 *
+	 * @return トークンが足りずリトライできない場合は false
+	 */
+	public boolean tryWithdraw() {
+		long current;
+		do {
+			current = balance.get();
+			if(current < SCALE) {
+				return false;
+			}
+		} while(!balance.compareAndSet(current, current - SCALE));
+		return true;
+	}
+
+	/**
+	 * 残りのリトライ回数を取得。
+	 *
+	 * @return 残りのリトライ回数
+	 */
+	public double getBalance() {
+		return (double)balance.get() / SCALE;
+	}
+}
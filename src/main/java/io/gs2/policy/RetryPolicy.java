@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * リトライポリシー。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public interface RetryPolicy {
+
+	/**
+	 * リクエストを開始する際に一度だけ呼ばれる。
+	 * リトライの予算を管理する場合に利用します。
+	 *
+	 * @param request リクエスト
+	 */
+	default void onRequest(HttpUriRequest request) {}
+
+	/**
+	 * 失敗したリクエストをリトライするまでの待機時間を取得する。
+	 *
+	 * @param request リクエスト
+	 * @param statusCode ステータスコード。通信エラーの場合は 0
+	 * @param exception 通信エラー。レスポンスを受信した場合は null
+	 * @param retryCount これまでのリトライ回数
+	 * @return 待機時間(msec)。リトライしない場合は負の値
+	 */
+	long getRetryDelay(HttpUriRequest request, int statusCode, Exception exception, int retryCount);
+
+}
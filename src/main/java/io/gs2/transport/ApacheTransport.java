@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+
+import io.gs2.http.Gs2HttpClient;
+
+/**
+ * Apache HttpClient で通信するトランスポート。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class ApacheTransport implements Transport {
+
+	/** HTTPクライアント */
+	private final Gs2HttpClient httpClient;
+
+	/**
+	 * コンストラクタ。
+	 * プロセス内で共有される {@link Gs2HttpClient} を使用します。
+	 */
+	public ApacheTransport() {
+		this(Gs2HttpClient.getDefault());
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param httpClient HTTPクライアント
+	 */
+	public ApacheTransport(Gs2HttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+		CompletableFuture<HttpResponse> future = httpClient.executeAsync(toHttpRequest(request));
+		future.whenComplete((response, e) -> {
+			if(e != null) {
+				result.completeExceptionally(e);
+				return;
+			}
+			try {
+				result.complete(toTransportResponse(response));
+			} catch (IOException ex) {
+				result.completeExceptionally(ex);
+			}
+		});
+		result.whenComplete((response, e) -> {
+			if(result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(httpClient != Gs2HttpClient.getDefault()) {
+			httpClient.close();
+		}
+	}
+
+	private static HttpUriRequest toHttpRequest(TransportRequest request) {
+		RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUri());
+		for(Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			if(!header.getKey().equalsIgnoreCase("Content-Type")) {
+				builder.addHeader(header.getKey(), header.getValue());
+			}
+		}
+		if(request.getBody() != null) {
+			ByteArrayEntity entity = new ByteArrayEntity(request.getBody());
+			entity.setContentType(request.getHeader("Content-Type"));
+			builder.setEntity(entity);
+		}
+		return builder.build();
+	}
+
+	private static TransportResponse toTransportResponse(HttpResponse response) throws IOException {
+		Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for(Header header : response.getAllHeaders()) {
+			headers.putIfAbsent(header.getName(), header.getValue());
+		}
+		HttpEntity entity = response.getEntity();
+		return new TransportResponse(response.getStatusLine().getStatusCode(), headers, entity == null ? null : EntityUtils.toByteArray(entity));
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JDK の HttpClient(java.net.http)で通信するトランスポート。
+ *
+ * Java 11 以降でのみ利用できます。HTTP/2 に対応したエンドポイントとは HTTP/2 で通信します。
+ * Java 11 以降では Multi-Release jar の META-INF/versions/11 に含まれる実装が使用され、
+ * HTTPクライアントとタイムアウトを指定するコンストラクタも利用できます。
+ * このクラスは Java 8 で実行した場合の実装で、インスタンスを生成できません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class JdkHttpTransport implements Transport {
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @throws UnsupportedOperationException Java 11 より前のバージョンで実行した場合にスローされます
+	 */
+	public JdkHttpTransport() {
+		throw new UnsupportedOperationException("JdkHttpTransport requires Java 11 or later");
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		throw new UnsupportedOperationException("JdkHttpTransport requires Java 11 or later");
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * ネットワークを使わずにプロセス内でレスポンスを返すトランスポート。
+ *
+ * 負荷試験やベンチマークで、通信以外の処理(署名、リトライ、レスポンスの読み込み)のコストを測定するために使用します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class LoopbackTransport implements Transport {
+
+	/**
+	 * リクエストに対するレスポンスを生成する
+	 */
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 * レスポンスを生成する。
+		 *
+		 * @param request リクエスト
+		 * @return レスポンス
+		 * @throws Exception 通信エラーを再現する場合にスローします
+		 */
+		TransportResponse handle(TransportRequest request) throws Exception;
+	}
+
+	/** レスポンスを生成する関数 */
+	private final Handler handler;
+	/** レスポンスを生成するスレッド。null の場合は呼び出し元のスレッドで生成する */
+	private final Executor executor;
+
+	/**
+	 * コンストラクタ。
+	 * レスポンスは呼び出し元のスレッドで生成します。
+	 *
+	 * @param handler レスポンスを生成する関数
+	 */
+	public LoopbackTransport(Handler handler) {
+		this(handler, null);
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param handler レスポンスを生成する関数
+	 * @param executor レスポンスを生成するスレッド
+	 */
+	public LoopbackTransport(Handler handler, Executor executor) {
+		this.handler = handler;
+		this.executor = executor;
+	}
+
+	/**
+	 * JSONのレスポンスを生成する。
+	 *
+	 * @param statusCode ステータスコード
+	 * @param json レスポンスボディ
+	 * @return レスポンス
+	 */
+	public static TransportResponse json(int statusCode, String json) {
+		return new TransportResponse(statusCode, Collections.singletonMap("Content-Type", "application/json"), json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+		if(executor == null) {
+			handle(request, result);
+		} else {
+			executor.execute(() -> handle(request, result));
+		}
+		return result;
+	}
+
+	private void handle(TransportRequest request, CompletableFuture<TransportResponse> result) {
+		try {
+			result.complete(handler.handle(request));
+		} catch (Exception e) {
+			result.completeExceptionally(e);
+		}
+	}
+}
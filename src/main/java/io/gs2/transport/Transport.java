@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * リクエストを送信するトランスポート。
+ *
+ * 署名、リトライ、レスポンスの読み込みは {@link io.gs2.AbstractGs2Client} が行い、
+ * トランスポートは組み立て済みのリクエストを送信してレスポンスを受信することだけを担当します。
+ * {@link TransportHttpClient} を通して {@link io.gs2.AbstractGs2Client#withHttpClient(io.gs2.http.Gs2HttpClient)} に設定します。
+ *
+ * タイムアウトは {@link java.net.SocketTimeoutException} で通知してください。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public interface Transport extends Closeable {
+
+	/**
+	 * リクエストを非同期に送信する。
+	 * 返された Future をキャンセルした場合は、可能であれば通信も中断してください。
+	 *
+	 * @param request リクエスト
+	 * @return レスポンス
+	 */
+	CompletableFuture<TransportResponse> send(TransportRequest request);
+
+	/**
+	 * リクエストを送信してレスポンスを待つ。
+	 *
+	 * @param request リクエスト
+	 * @return レスポンス
+	 * @throws IOException 通信エラーが発生した場合にスローされます
+	 */
+	default TransportResponse execute(TransportRequest request) throws IOException {
+		CompletableFuture<TransportResponse> future = send(request);
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for response");
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+		}
+	}
+
+	@Override
+	default void close() throws IOException {
+	}
+}
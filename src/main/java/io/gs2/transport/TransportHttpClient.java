@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+
+import io.gs2.http.Gs2BufferedHttpResponse;
+import io.gs2.http.Gs2HttpClient;
+
+/**
+ * {@link Transport} で通信する {@link Gs2HttpClient}。
+ *
+ * {@link io.gs2.AbstractGs2Client} が組み立てたリクエストをトランスポートの表現に変換して送信するため、
+ * 署名、リトライ、レスポンスの読み込みはどのトランスポートでも同じように動作します。
+ *
+ * {@link TransportRequest} はボディをバイト列で保持するため、リクエストボディは送信前にすべてメモリに読み込みます。
+ * SDK が送信するボディはメモリ上で組み立てた JSON なので追加のコストは小さいですが、
+ * ストリーミングが必要な大きなボディの送信には向きません。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class TransportHttpClient extends Gs2HttpClient {
+
+	/** トランスポート */
+	private final Transport transport;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param transport トランスポート
+	 */
+	public TransportHttpClient(Transport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * トランスポートを取得。
+	 *
+	 * @return トランスポート
+	 */
+	public Transport getTransport() {
+		return transport;
+	}
+
+	@Override
+	public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		return toHttpResponse(transport.execute(toTransportRequest(request)));
+	}
+
+	@Override
+	public CompletableFuture<HttpResponse> executeAsync(HttpUriRequest request) {
+		CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+		CompletableFuture<TransportResponse> future;
+		try {
+			future = transport.send(toTransportRequest(request));
+		} catch (IOException | RuntimeException e) {
+			result.completeExceptionally(e);
+			return result;
+		}
+		future.whenComplete((response, e) -> {
+			if(e != null) {
+				result.completeExceptionally(e);
+			} else {
+				result.complete(toHttpResponse(response));
+			}
+		});
+		result.whenComplete((response, e) -> {
+			if(result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			transport.close();
+		} finally {
+			super.close();
+		}
+	}
+
+	/**
+	 * リクエストをトランスポートの表現に変換する。
+	 * リクエストボディはすべて読み込んでバイト列にします。
+	 *
+	 * @param request リクエスト
+	 * @return トランスポートで送信するリクエスト
+	 * @throws IOException ボディの読み込みに失敗した場合にスローされます
+	 */
+	public static TransportRequest toTransportRequest(HttpUriRequest request) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		for(Header header : request.getAllHeaders()) {
+			if(!header.getName().equalsIgnoreCase("Content-Length")) {
+				headers.put(header.getName(), header.getValue());
+			}
+		}
+		HttpEntity entity = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest)request).getEntity() : null;
+		byte[] body = null;
+		if(entity != null) {
+			// リクエストに指定された Content-Type がある場合はエンティティの Content-Type より優先する
+			if(entity.getContentType() != null && !request.containsHeader("Content-Type")) {
+				headers.put("Content-Type", entity.getContentType().getValue());
+			}
+			body = EntityUtils.toByteArray(entity);
+		}
+		return new TransportRequest(request.getMethod(), request.getURI(), headers, body);
+	}
+
+	/**
+	 * トランスポートで受信したレスポンスを変換する。
+	 *
+	 * @param response トランスポートで受信したレスポンス
+	 * @return レスポンス
+	 */
+	public static Gs2BufferedHttpResponse toHttpResponse(TransportResponse response) {
+		Gs2BufferedHttpResponse httpResponse = new Gs2BufferedHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, response.getStatusCode(), null));
+		for(Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+			httpResponse.addHeader(header.getKey(), header.getValue());
+		}
+		ByteArrayEntity entity = new ByteArrayEntity(response.getBody());
+		String contentType = response.getHeader("Content-Type");
+		if(contentType != null) {
+			entity.setContentType(contentType);
+		}
+		httpResponse.setEntity(entity);
+		return httpResponse;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * トランスポートで送信するリクエスト。
+ *
+ * 署名済みのヘッダーとシリアライズ済みのボディを保持する、HTTPライブラリに依存しない表現です。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public final class TransportRequest {
+
+	/** メソッド */
+	private final String method;
+	/** URL */
+	private final URI uri;
+	/** ヘッダー(名前の大文字小文字を区別しない) */
+	private final Map<String, String> headers;
+	/** ボディ。ボディがない場合は null */
+	private final byte[] body;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param method メソッド
+	 * @param uri URL
+	 * @param headers ヘッダー
+	 * @param body ボディ。ボディがない場合は null
+	 */
+	public TransportRequest(String method, URI uri, Map<String, String> headers, byte[] body) {
+		TreeMap<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		copy.putAll(headers);
+		this.method = method;
+		this.uri = uri;
+		this.headers = Collections.unmodifiableMap(copy);
+		this.body = body;
+	}
+
+	/**
+	 * メソッドを取得。
+	 *
+	 * @return メソッド
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * URLを取得。
+	 *
+	 * @return URL
+	 */
+	public URI getUri() {
+		return uri;
+	}
+
+	/**
+	 * ヘッダーを取得。
+	 *
+	 * @return ヘッダー
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * ヘッダーの値を取得。
+	 *
+	 * @param name ヘッダー名
+	 * @return ヘッダーの値。存在しない場合は null
+	 */
+	public String getHeader(String name) {
+		return headers.get(name);
+	}
+
+	/**
+	 * ボディを取得。
+	 *
+	 * @return ボディ。ボディがない場合は null
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * トランスポートで受信したレスポンス。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public final class TransportResponse {
+
+	/** ステータスコード */
+	private final int statusCode;
+	/** ヘッダー(名前の大文字小文字を区別しない) */
+	private final Map<String, String> headers;
+	/** ボディ */
+	private final byte[] body;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param statusCode ステータスコード
+	 * @param headers ヘッダー
+	 * @param body ボディ
+	 */
+	public TransportResponse(int statusCode, Map<String, String> headers, byte[] body) {
+		TreeMap<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		copy.putAll(headers);
+		this.statusCode = statusCode;
+		this.headers = Collections.unmodifiableMap(copy);
+		this.body = body == null ? new byte[0] : body;
+	}
+
+	/**
+	 * ステータスコードを取得。
+	 *
+	 * @return ステータスコード
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * ヘッダーを取得。
+	 *
+	 * @return ヘッダー
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * ヘッダーの値を取得。
+	 *
+	 * @param name ヘッダー名
+	 * @return ヘッダーの値。存在しない場合は null
+	 */
+	public String getHeader(String name) {
+		return headers.get(name);
+	}
+
+	/**
+	 * ボディを取得。
+	 *
+	 * @return ボディ
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+}
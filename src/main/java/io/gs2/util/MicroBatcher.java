@@ -0,0 +1,270 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.gs2.Gs2Constant;
+
+/**
+ * 小さなリクエストをまとめて送信するマイクロバッチ。
+ *
+ * キー(サービス・モジュール・ファンクションなど)ごとに投入された要求を、一定時間または一定件数までまとめてから
+ * {@link BatchHandler} に渡します。バッチAPIがある場合は1回のリクエストで送信し、
+ * ない場合は {@link #individually(Function)} でまとめて非同期に送信します。
+ * 呼び出し元はそれぞれ自分の要求の結果、または失敗を受け取ります。
+ *
+ * 一定件数に達したバッチは要求を投入したスレッドで、一定時間が経過したバッチはエグゼキュータで {@link BatchHandler} に渡します。
+ *
+ * @param <I> 要求の型
+ * @param <O> 結果の型
+ * @author Game Server Services, Inc.
+ *
+ */
+public class MicroBatcher<I, O> implements Closeable {
+
+	/**
+	 * まとめた要求を送信する
+	 *
+	 * @param <I> 要求の型
+	 * @param <O> 結果の型
+	 */
+	@FunctionalInterface
+	public interface BatchHandler<I, O> {
+
+		/**
+		 * まとめた要求を送信する。
+		 * 要求を投入したスレッド、または {@link MicroBatcher#withExecutor(Executor)} のエグゼキュータから呼ばれます。
+		 *
+		 * @param key キー
+		 * @param items 要求
+		 * @return 要求と同じ順序の結果
+		 */
+		List<CompletableFuture<O>> execute(String key, List<I> items);
+	}
+
+	/** まとめた要求を送信する関数 */
+	private final BatchHandler<I, O> handler;
+	/** まとめる最大件数 */
+	private volatile int maxBatchSize = Gs2Constant.MICRO_BATCH_SIZE;
+	/** 送信を待つ時間(msec) */
+	private volatile long window = Gs2Constant.MICRO_BATCH_WINDOW;
+	/** 一定時間が経過したバッチを送信するエグゼキュータ */
+	private volatile Executor executor = ForkJoinPool.commonPool();
+	/** キーごとの送信待ちのバッチ */
+	private final ConcurrentHashMap<String, Batch<I, O>> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param handler まとめた要求を送信する関数
+	 */
+	public MicroBatcher(BatchHandler<I, O> handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * バッチAPIがない場合に、まとめた要求を1件ずつ非同期に送信する関数を生成する。
+	 * 要求はまとめて送信されるため、コネクションプールのコネクションを使いまわせます。
+	 *
+	 * @param <I> 要求の型
+	 * @param <O> 結果の型
+	 * @param sender 要求を1件送信する関数
+	 * @return まとめた要求を送信する関数
+	 */
+	public static <I, O> BatchHandler<I, O> individually(Function<I, CompletableFuture<O>> sender) {
+		return (key, items) -> {
+			List<CompletableFuture<O>> results = new ArrayList<>(items.size());
+			for(I item : items) {
+				results.add(sender.apply(item));
+			}
+			return results;
+		};
+	}
+
+	/**
+	 * まとめる最大件数を設定
+	 *
+	 * @param maxBatchSize まとめる最大件数
+	 * @return this
+	 */
+	public MicroBatcher<I, O> withMaxBatchSize(int maxBatchSize) {
+		if(maxBatchSize < 1) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * 送信を待つ時間を設定
+	 *
+	 * @param window 送信を待つ時間(msec)。0 の場合はまとめずにすぐ送信する
+	 * @return this
+	 */
+	public MicroBatcher<I, O> withWindow(long window) {
+		this.window = window;
+		return this;
+	}
+
+	/**
+	 * 一定時間が経過したバッチを送信するエグゼキュータを設定
+	 * 共有スケジューラのスレッドを占有しないよう、送信はこのエグゼキュータで行います。
+	 * 未設定の場合は {@link ForkJoinPool#commonPool()} を利用します。
+	 *
+	 * @param executor エグゼキュータ
+	 * @return this
+	 */
+	public MicroBatcher<I, O> withExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * 要求を投入する。
+	 *
+	 * @param key キー。同じキーの要求がまとめて送信されます
+	 * @param item 要求
+	 * @return 結果
+	 */
+	public CompletableFuture<O> submit(String key, I item) {
+		CompletableFuture<O> future = new CompletableFuture<>();
+		List<Batch<I, O>> ready = new ArrayList<>(1);
+		pending.compute(key, (k, batch) -> {
+			if(batch == null) {
+				batch = new Batch<>();
+			}
+			batch.items.add(item);
+			batch.futures.add(future);
+			if(batch.items.size() >= maxBatchSize || window <= 0) {
+				ready.add(batch);
+				return null;
+			}
+			if(batch.timer == null) {
+				Batch<I, O> scheduled = batch;
+				batch.timer = SchedulerUtil.getScheduler().schedule(() -> expire(key, scheduled), window, TimeUnit.MILLISECONDS);
+			}
+			return batch;
+		});
+		for(Batch<I, O> batch : ready) {
+			dispatch(key, batch);
+		}
+		return future;
+	}
+
+	/**
+	 * 送信待ちの要求をすべて送信する。
+	 */
+	public void flush() {
+		for(String key : new ArrayList<>(pending.keySet())) {
+			Batch<I, O> batch = pending.get(key);
+			if(batch != null) {
+				flush(key, batch);
+			}
+		}
+	}
+
+	/**
+	 * 送信待ちのバッチの数を取得。
+	 *
+	 * @return 送信待ちのバッチの数
+	 */
+	public int getPendingBatches() {
+		return pending.size();
+	}
+
+	@Override
+	public void close() {
+		flush();
+	}
+
+	/**
+	 * 一定時間が経過したバッチをエグゼキュータで送信する。
+	 * 共有スケジューラのスレッドから呼ばれるため、ここでは送信しません。
+	 *
+	 * @param key キー
+	 * @param batch バッチ
+	 */
+	private void expire(String key, Batch<I, O> batch) {
+		try {
+			executor.execute(() -> flush(key, batch));
+		} catch (RejectedExecutionException e) {
+			if(pending.remove(key, batch)) {
+				for(CompletableFuture<O> future : batch.futures) {
+					future.completeExceptionally(e);
+				}
+			}
+		}
+	}
+
+	private void flush(String key, Batch<I, O> batch) {
+		if(pending.remove(key, batch)) {
+			dispatch(key, batch);
+		}
+	}
+
+	private void dispatch(String key, Batch<I, O> batch) {
+		if(batch.timer != null) {
+			batch.timer.cancel(false);
+		}
+		List<CompletableFuture<O>> results;
+		try {
+			results = handler.execute(key, batch.items);
+			if(results == null || results.size() != batch.items.size()) {
+				throw new IllegalStateException("batch handler returned " + (results == null ? "null" : results.size() + " results") + " for " + batch.items.size() + " items");
+			}
+		} catch (RuntimeException e) {
+			for(CompletableFuture<O> future : batch.futures) {
+				future.completeExceptionally(e);
+			}
+			return;
+		}
+		for(int i=0; i<results.size(); i++) {
+			CompletableFuture<O> future = batch.futures.get(i);
+			results.get(i).whenComplete((value, e) -> {
+				if(e != null) {
+					future.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+				} else {
+					future.complete(value);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 送信待ちのバッチ
+	 */
+	private static final class Batch<I, O> {
+
+		/** 要求 */
+		final List<I> items = new ArrayList<>();
+		/** 結果 */
+		final List<CompletableFuture<O>> futures = new ArrayList<>();
+		/** 送信を待つタイマー */
+		ScheduledFuture<?> timer;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * リクエストの同一性を判定するキーのユーティリティ。
+ * 
+ * メソッド、URL、ヘッダー(認証情報を含む)からキーを生成します。
+ * リクエストごとに変わるタイムスタンプと署名、条件付きリクエストのヘッダーは含めません。
+ * 
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RequestKeyUtil {
+
+	public static String toKey(HttpUriRequest request) {
+		StringBuilder builder = new StringBuilder(128)
+				.append(request.getMethod())
+				.append(' ')
+				.append(request.getURI());
+		for(Header header : request.getAllHeaders()) {
+			String name = header.getName();
+			if(isIgnored(name)) {
+				continue;
+			}
+			builder.append('\n').append(name).append(':').append(header.getValue());
+		}
+		return builder.toString();
+	}
+
+	private static boolean isIgnored(String name) {
+		return name.equalsIgnoreCase("X-GS2-REQUEST-TIMESTAMP")
+				|| name.equalsIgnoreCase("X-GS2-REQUEST-SIGN")
+				|| name.equalsIgnoreCase("If-None-Match")
+				|| name.equalsIgnoreCase("If-Modified-Since");
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * リクエスト署名の生成。
+ *
+ * クライアントシークレットのデコードは生成時に一度だけ行い、
+ * 初期化済みの Mac と作業用バッファをスレッドごとに再利用します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RequestSigner {
+
+	/** 署名アルゴリズム */
+	private static final String ALGORITHM = "HmacSHA256";
+
+	/** 署名鍵 */
+	private final SecretKeySpec key;
+	/** スレッドごとの作業領域 */
+	private final ThreadLocal<State> state = ThreadLocal.withInitial(this::createState);
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param clientSecret Base64エンコードされたクライアントシークレット
+	 */
+	public RequestSigner(String clientSecret) {
+		this(Base64.getDecoder().decode(clientSecret.getBytes(StandardCharsets.ISO_8859_1)));
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param secret 署名鍵
+	 */
+	public RequestSigner(byte[] secret) {
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+	}
+
+	/**
+	 * 署名を生成する。
+	 * {@link SignUtil#sign(String, String, String, Long)} の結果をBase64エンコードしたものと同じ値を返します。
+	 *
+	 * @param module アクセス先モジュール
+	 * @param function アクセス先ファンクション
+	 * @param timestamp タイムスタンプ
+	 * @return Base64エンコードされた署名
+	 */
+	public String sign(String module, String function, long timestamp) {
+		State state = this.state.get();
+		int length = state.append(0, module);
+		length = state.append(length, ':');
+		length = state.append(length, function);
+		length = state.append(length, ':');
+		length = state.append(length, timestamp);
+		try {
+			state.mac.update(state.input, 0, length);
+			state.mac.doFinal(state.digest, 0);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+		int encoded = Base64.getEncoder().encode(state.digest, state.encoded);
+		return new String(state.encoded, 0, encoded, StandardCharsets.ISO_8859_1);
+	}
+
+	private State createState() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			return new State(mac);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * スレッドごとの作業領域
+	 */
+	private static final class State {
+
+		/** 初期化済みの Mac */
+		final Mac mac;
+		/** 署名対象の文字列 */
+		byte[] input = new byte[128];
+		/** 署名 */
+		final byte[] digest;
+		/** Base64エンコードされた署名 */
+		final byte[] encoded;
+
+		State(Mac mac) {
+			this.mac = mac;
+			this.digest = new byte[mac.getMacLength()];
+			this.encoded = new byte[(digest.length + 2) / 3 * 4];
+		}
+
+		int append(int offset, char c) {
+			ensureCapacity(offset + 1);
+			input[offset] = (byte)c;
+			return offset + 1;
+		}
+
+		int append(int offset, String value) {
+			if(value == null) {
+				value = "null";
+			}
+			int length = value.length();
+			ensureCapacity(offset + length);
+			for(int i=0; i<length; i++) {
+				char c = value.charAt(i);
+				if(c >= 0x80) {
+					return appendUtf8(offset, value);
+				}
+				input[offset + i] = (byte)c;
+			}
+			return offset + length;
+		}
+
+		int append(int offset, long value) {
+			if(value < 0) {
+				return append(offset, Long.toString(value));
+			}
+			int digits = 1;
+			for(long v = value / 10; v > 0; v /= 10) {
+				digits++;
+			}
+			ensureCapacity(offset + digits);
+			for(int i=offset+digits-1; i>=offset; i--) {
+				input[i] = (byte)('0' + value % 10);
+				value /= 10;
+			}
+			return offset + digits;
+		}
+
+		private int appendUtf8(int offset, String value) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			ensureCapacity(offset + bytes.length);
+			System.arraycopy(bytes, 0, input, offset, bytes.length);
+			return offset + bytes.length;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if(input.length < capacity) {
+				input = Arrays.copyOf(input, Math.max(capacity, input.length * 2));
+			}
+		}
+	}
+}
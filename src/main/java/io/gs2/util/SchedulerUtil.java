@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * SDK内で共有されるスケジューラ。
+ *
+ * リトライの待機やタイムアウトなど、スレッドを占有せずに遅延実行する処理に利用します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class SchedulerUtil {
+
+	/** 共有スケジューラ */
+	private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+	/**
+	 * 共有スケジューラを取得。
+	 * 登録する処理はすぐに終わるものに限ってください。
+	 *
+	 * @return 共有スケジューラ
+	 */
+	public static ScheduledExecutorService getScheduler() {
+		return SCHEDULER;
+	}
+
+	private static ScheduledExecutorService createScheduler() {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "gs2-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setRemoveOnCancelPolicy(true);
+		return scheduler;
+	}
+}
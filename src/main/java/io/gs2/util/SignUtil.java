@@ -15,6 +15,7 @@
  */
 package io.gs2.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -23,10 +24,18 @@ import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+/**
+ * 署名ユーティリティ。
+ * 
+ * リクエストごとに署名する場合は {@link RequestSigner} を利用してください。
+ * 
+ * @author Game Server Services, Inc.
+ *
+ */
 public class SignUtil {
 
 	public static byte[] sign(String clientSecret, String module, String function, Long timestamp) {
-		return sign(Base64.getDecoder().decode(clientSecret.getBytes()), module + ":" + function + ":" + timestamp);
+		return sign(Base64.getDecoder().decode(clientSecret.getBytes(StandardCharsets.ISO_8859_1)), module + ":" + function + ":" + timestamp);
 	}
 
 	public static byte[] sign(byte[] clientSecret, String body) {
@@ -34,7 +43,7 @@ public class SignUtil {
 			SecretKey key = new SecretKeySpec(clientSecret, "HmacSHA256");
 			Mac m = Mac.getInstance("HmacSHA256");
 			m.init(key);
-			m.update(body.getBytes());
+			m.update(body.getBytes(StandardCharsets.UTF_8));
 			return m.doFinal();
 		} catch (NoSuchAlgorithmException | InvalidKeyException e) {
 			e.printStackTrace();
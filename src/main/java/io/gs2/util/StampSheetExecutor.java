@@ -0,0 +1,474 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.gs2.Gs2Constant;
+import io.gs2.model.StampSheet;
+import io.gs2.model.StampTask;
+
+/**
+ * スタンプシートの実行。
+ *
+ * スタンプシートのタスクをアクションごとに登録した関数で非同期に実行し、すべてのタスクが成功した後にスタンプシートを実行します。
+ * 互いに依存しないタスクは並列に実行し、バッチ実行の関数を登録したアクションのタスクはまとめて実行します。
+ * 順序キーが同じタスクは、スタンプシート内の順序で1件ずつ実行します。
+ * 結果はタスクごとにスタンプシートのトランザクションIDとあわせて返します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class StampSheetExecutor {
+
+	/**
+	 * タスクを実行する関数
+	 */
+	@FunctionalInterface
+	public interface TaskHandler {
+
+		/**
+		 * タスクを実行する。
+		 *
+		 * @param transactionId トランザクションID
+		 * @param task タスク
+		 * @return 実行結果
+		 */
+		CompletableFuture<?> execute(String transactionId, StampTask task);
+	}
+
+	/**
+	 * 同じアクションのタスクをまとめて実行する関数
+	 */
+	@FunctionalInterface
+	public interface BatchTaskHandler {
+
+		/**
+		 * タスクをまとめて実行する。
+		 *
+		 * @param transactionId トランザクションID
+		 * @param action アクション名
+		 * @param tasks タスク
+		 * @return タスクと同じ順序の実行結果
+		 */
+		List<? extends CompletableFuture<?>> execute(String transactionId, String action, List<StampTask> tasks);
+	}
+
+	/**
+	 * スタンプシートを実行する関数
+	 */
+	@FunctionalInterface
+	public interface SheetHandler {
+
+		/**
+		 * スタンプシートを実行する。
+		 *
+		 * @param sheet スタンプシート
+		 * @param tasks タスクの実行結果
+		 * @return 実行結果
+		 */
+		CompletableFuture<?> execute(StampSheet sheet, List<TaskResult> tasks);
+	}
+
+	/** アクションごとのタスクを実行する関数 */
+	private final ConcurrentHashMap<String, TaskHandler> handlers = new ConcurrentHashMap<>();
+	/** アクションごとのタスクをまとめて実行する関数 */
+	private final ConcurrentHashMap<String, BatchTaskHandler> batchHandlers = new ConcurrentHashMap<>();
+	/** スタンプシートを実行する関数 */
+	private volatile SheetHandler sheetHandler;
+	/** タスクの順序キーを返す関数 */
+	private volatile Function<StampTask, String> orderingKey = task -> null;
+	/** まとめて実行する最大件数 */
+	private volatile int maxBatchSize = Gs2Constant.MICRO_BATCH_SIZE;
+
+	/**
+	 * タスクを実行する関数を登録
+	 *
+	 * @param action アクション名
+	 * @param handler タスクを実行する関数
+	 * @return this
+	 */
+	public StampSheetExecutor withAction(String action, TaskHandler handler) {
+		handlers.put(action, handler);
+		return this;
+	}
+
+	/**
+	 * 同じアクションのタスクをまとめて実行する関数を登録
+	 * 順序キーのないタスクは、スタンプシートごとにまとめて実行します。
+	 *
+	 * @param action アクション名
+	 * @param handler タスクをまとめて実行する関数
+	 * @return this
+	 */
+	public StampSheetExecutor withBatchAction(String action, BatchTaskHandler handler) {
+		batchHandlers.put(action, handler);
+		return this;
+	}
+
+	/**
+	 * スタンプシートを実行する関数を設定
+	 * 設定しない場合はタスクのみを実行します。
+	 *
+	 * @param sheetHandler スタンプシートを実行する関数
+	 * @return this
+	 */
+	public StampSheetExecutor withSheetHandler(SheetHandler sheetHandler) {
+		this.sheetHandler = sheetHandler;
+		return this;
+	}
+
+	/**
+	 * タスクの順序キーを返す関数を設定
+	 * 同じ順序キーのタスクはスタンプシート内の順序で1件ずつ実行し、前のタスクが失敗した場合は以降のタスクを実行しません。
+	 * 順序キーが null のタスクは他のタスクと並列に実行します。
+	 *
+	 * @param orderingKey タスクの順序キーを返す関数
+	 * @return this
+	 */
+	public StampSheetExecutor withOrderingKey(Function<StampTask, String> orderingKey) {
+		this.orderingKey = orderingKey == null ? task -> null : orderingKey;
+		return this;
+	}
+
+	/**
+	 * まとめて実行する最大件数を設定
+	 *
+	 * @param maxBatchSize まとめて実行する最大件数
+	 * @return this
+	 */
+	public StampSheetExecutor withMaxBatchSize(int maxBatchSize) {
+		if(maxBatchSize < 1) {
+			throw new IllegalArgumentException("invalid batch size");
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * スタンプシートを実行する。
+	 * タスクやスタンプシートの実行に失敗しても Future は例外で完了せず、失敗は結果で通知します。
+	 *
+	 * @param sheet スタンプシート
+	 * @return 実行結果
+	 */
+	public CompletableFuture<SheetResult> execute(StampSheet sheet) {
+		String transactionId = sheet.getTransactionId();
+		List<StampTask> tasks = sheet.getTasks() == null ? Collections.<StampTask>emptyList() : sheet.getTasks();
+		Function<StampTask, String> orderingKey = this.orderingKey;
+
+		List<CompletableFuture<TaskResult>> results = new ArrayList<>(Collections.<CompletableFuture<TaskResult>>nCopies(tasks.size(), null));
+		Map<String, List<Integer>> chains = new LinkedHashMap<>();
+		Map<String, List<Integer>> batches = new LinkedHashMap<>();
+		for(int i=0; i<tasks.size(); i++) {
+			StampTask task = tasks.get(i);
+			String key = task == null ? null : orderingKey.apply(task);
+			if(key != null) {
+				chains.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+			} else if(task != null && task.getAction() != null && batchHandlers.containsKey(task.getAction())) {
+				batches.computeIfAbsent(task.getAction(), k -> new ArrayList<>()).add(i);
+			} else {
+				results.set(i, executeTask(transactionId, i, task));
+			}
+		}
+		for(Map.Entry<String, List<Integer>> batch : batches.entrySet()) {
+			List<Integer> indexes = batch.getValue();
+			for(int from=0; from<indexes.size(); from+=maxBatchSize) {
+				executeBatch(transactionId, batch.getKey(), tasks, indexes.subList(from, Math.min(indexes.size(), from + maxBatchSize)), results);
+			}
+		}
+		for(List<Integer> chain : chains.values()) {
+			CompletableFuture<TaskResult> previous = null;
+			for(int index : chain) {
+				StampTask task = tasks.get(index);
+				if(previous == null) {
+					previous = executeTask(transactionId, index, task);
+				} else {
+					previous = previous.thenCompose(result -> result.isSuccess()
+							? executeTask(transactionId, index, task)
+							: CompletableFuture.completedFuture(new TaskResult(index, task, null, new CancellationException("preceding task failed: " + result.getIndex()))));
+				}
+				results.set(index, previous);
+			}
+		}
+
+		return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()])).thenCompose(v -> {
+			List<TaskResult> taskResults = new ArrayList<>(results.size());
+			boolean succeeded = true;
+			for(CompletableFuture<TaskResult> result : results) {
+				TaskResult taskResult = result.join();
+				taskResults.add(taskResult);
+				succeeded &= taskResult.isSuccess();
+			}
+			List<TaskResult> unmodifiable = Collections.unmodifiableList(taskResults);
+			SheetHandler sheetHandler = this.sheetHandler;
+			if(!succeeded || sheetHandler == null) {
+				return CompletableFuture.completedFuture(new SheetResult(transactionId, unmodifiable, succeeded, false, null, null));
+			}
+			return invoke(() -> sheetHandler.execute(sheet, unmodifiable)).handle((value, e) ->
+					new SheetResult(transactionId, unmodifiable, e == null, true, value, unwrap(e)));
+		});
+	}
+
+	private CompletableFuture<TaskResult> executeTask(String transactionId, int index, StampTask task) {
+		if(task == null || task.getAction() == null) {
+			return CompletableFuture.completedFuture(new TaskResult(index, task, null, new IllegalStateException("task has no action: " + index)));
+		}
+		TaskHandler handler = handlers.get(task.getAction());
+		if(handler == null) {
+			BatchTaskHandler batchHandler = batchHandlers.get(task.getAction());
+			if(batchHandler == null) {
+				return CompletableFuture.completedFuture(new TaskResult(index, task, null, new IllegalStateException("no handler for action: " + task.getAction())));
+			}
+			handler = (id, t) -> batchHandler.execute(id, t.getAction(), Collections.singletonList(t)).get(0);
+		}
+		TaskHandler selected = handler;
+		return invoke(() -> selected.execute(transactionId, task)).handle((value, e) -> new TaskResult(index, task, value, unwrap(e)));
+	}
+
+	private void executeBatch(String transactionId, String action, List<StampTask> tasks, List<Integer> indexes, List<CompletableFuture<TaskResult>> results) {
+		List<StampTask> batch = new ArrayList<>(indexes.size());
+		for(int index : indexes) {
+			batch.add(tasks.get(index));
+		}
+		List<? extends CompletableFuture<?>> executions;
+		try {
+			executions = batchHandlers.get(action).execute(transactionId, action, batch);
+			if(executions == null || executions.size() != batch.size()) {
+				throw new IllegalStateException("batch handler returned " + (executions == null ? "null" : executions.size() + " results") + " for " + batch.size() + " tasks");
+			}
+		} catch (RuntimeException e) {
+			for(int i=0; i<indexes.size(); i++) {
+				results.set(indexes.get(i), CompletableFuture.completedFuture(new TaskResult(indexes.get(i), batch.get(i), null, e)));
+			}
+			return;
+		}
+		for(int i=0; i<indexes.size(); i++) {
+			int index = indexes.get(i);
+			StampTask task = batch.get(i);
+			CompletableFuture<?> execution = executions.get(i);
+			results.set(index, execution == null
+					? CompletableFuture.completedFuture(new TaskResult(index, task, null, new IllegalStateException("batch handler returned null")))
+					: execution.handle((value, e) -> new TaskResult(index, task, value, unwrap(e))));
+		}
+	}
+
+	private static CompletableFuture<?> invoke(Supplier<CompletableFuture<?>> action) {
+		try {
+			CompletableFuture<?> future = action.get();
+			if(future == null) {
+				throw new IllegalStateException("handler returned null");
+			}
+			return future;
+		} catch (RuntimeException e) {
+			CompletableFuture<?> future = new CompletableFuture<>();
+			future.completeExceptionally(e);
+			return future;
+		}
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+	}
+
+	/**
+	 * タスクの実行結果
+	 */
+	public static class TaskResult {
+
+		/** スタンプシート内のタスクの位置 */
+		private final int index;
+		/** タスク */
+		private final StampTask task;
+		/** 実行結果 */
+		private final Object value;
+		/** 失敗した原因 */
+		private final Throwable exception;
+
+		TaskResult(int index, StampTask task, Object value, Throwable exception) {
+			this.index = index;
+			this.task = task;
+			this.value = value;
+			this.exception = exception;
+		}
+
+		/**
+		 * スタンプシート内のタスクの位置を取得
+		 *
+		 * @return スタンプシート内のタスクの位置
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * タスクを取得
+		 *
+		 * @return タスク
+		 */
+		public StampTask getTask() {
+			return task;
+		}
+
+		/**
+		 * 成功したか
+		 *
+		 * @return 成功した場合は true
+		 */
+		public boolean isSuccess() {
+			return exception == null;
+		}
+
+		/**
+		 * 実行結果を取得
+		 *
+		 * @return 実行結果。失敗した場合は null
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		/**
+		 * 失敗した原因を取得
+		 * 同じ順序キーの前のタスクが失敗して実行しなかった場合は {@link CancellationException} です。
+		 *
+		 * @return 失敗した原因。成功した場合は null
+		 */
+		public Throwable getException() {
+			return exception;
+		}
+
+		@Override
+		public String toString() {
+			return "TaskResult [index=" + index + ", action=" + (task == null ? null : task.getAction()) + ", success=" + isSuccess()
+					+ (exception == null ? "" : ", exception=" + exception) + "]";
+		}
+	}
+
+	/**
+	 * スタンプシートの実行結果
+	 */
+	public static class SheetResult {
+
+		/** トランザクションID */
+		private final String transactionId;
+		/** タスクの実行結果 */
+		private final List<TaskResult> tasks;
+		/** 成功したか */
+		private final boolean success;
+		/** スタンプシートを実行したか */
+		private final boolean sheetExecuted;
+		/** スタンプシートの実行結果 */
+		private final Object value;
+		/** スタンプシートの実行に失敗した原因 */
+		private final Throwable exception;
+
+		SheetResult(String transactionId, List<TaskResult> tasks, boolean success, boolean sheetExecuted, Object value, Throwable exception) {
+			this.transactionId = transactionId;
+			this.tasks = tasks;
+			this.success = success;
+			this.sheetExecuted = sheetExecuted;
+			this.value = value;
+			this.exception = exception;
+		}
+
+		/**
+		 * トランザクションIDを取得
+		 *
+		 * @return トランザクションID
+		 */
+		public String getTransactionId() {
+			return transactionId;
+		}
+
+		/**
+		 * タスクの実行結果を取得
+		 *
+		 * @return スタンプシート内の順序のタスクの実行結果
+		 */
+		public List<TaskResult> getTasks() {
+			return tasks;
+		}
+
+		/**
+		 * 失敗したタスクの実行結果を取得
+		 *
+		 * @return 失敗したタスクの実行結果
+		 */
+		public List<TaskResult> getFailedTasks() {
+			List<TaskResult> failed = new ArrayList<>();
+			for(TaskResult task : tasks) {
+				if(!task.isSuccess()) {
+					failed.add(task);
+				}
+			}
+			return failed;
+		}
+
+		/**
+		 * すべてのタスクと、設定されている場合はスタンプシートの実行に成功したか
+		 *
+		 * @return 成功した場合は true
+		 */
+		public boolean isSuccess() {
+			return success;
+		}
+
+		/**
+		 * スタンプシートを実行したか
+		 * タスクが失敗した場合と、スタンプシートを実行する関数が設定されていない場合は実行しません。
+		 *
+		 * @return スタンプシートを実行した場合は true
+		 */
+		public boolean isSheetExecuted() {
+			return sheetExecuted;
+		}
+
+		/**
+		 * スタンプシートの実行結果を取得
+		 *
+		 * @return スタンプシートの実行結果
+		 */
+		public Object getValue() {
+			return value;
+		}
+
+		/**
+		 * スタンプシートの実行に失敗した原因を取得
+		 *
+		 * @return 失敗した原因。成功した場合と実行していない場合は null
+		 */
+		public Throwable getException() {
+			return exception;
+		}
+
+		@Override
+		public String toString() {
+			return "SheetResult [transactionId=" + transactionId + ", success=" + success + ", sheetExecuted=" + sheetExecuted
+					+ ", tasks=" + tasks + (exception == null ? "" : ", exception=" + exception) + "]";
+		}
+	}
+}
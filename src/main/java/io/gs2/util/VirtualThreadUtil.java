@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.gs2.http.Gs2HttpClient;
+import io.gs2.transport.Transport;
+import io.gs2.transport.TransportHttpClient;
+
+/**
+ * 仮想スレッドの利用。
+ *
+ * Java 21 以降で実行している場合は仮想スレッドを利用し、それ以前の環境では通常のスレッドで代替します。
+ * Java 21 以降でビルドした jar には、リフレクションを使わずに同じ処理を行うクラスが
+ * Multi-Release jar として同梱されます。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class VirtualThreadUtil {
+
+	/** Thread#isVirtual */
+	private static final Method IS_VIRTUAL = getMethod(Thread.class, "isVirtual");
+	/** Executors#newVirtualThreadPerTaskExecutor */
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = getMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+	/** 仮想スレッドを利用できるか */
+	private static final boolean SUPPORTED = isAvailable();
+
+	/** 共有のエグゼキュータ */
+	private static volatile ExecutorService executor;
+
+	/**
+	 * 仮想スレッドを利用できるかを取得。
+	 *
+	 * @return 仮想スレッドを利用できる場合は true
+	 */
+	public static boolean isSupported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * スレッドが仮想スレッドかを取得。
+	 *
+	 * @param thread スレッド
+	 * @return 仮想スレッドの場合は true
+	 */
+	public static boolean isVirtual(Thread thread) {
+		if(IS_VIRTUAL == null) {
+			return false;
+		}
+		try {
+			return (Boolean)IS_VIRTUAL.invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * タスクごとに仮想スレッドを起動するエグゼキュータを生成する。
+	 * 仮想スレッドを利用できない場合は、必要に応じてデーモンスレッドを起動するスレッドプールを生成します。
+	 *
+	 * @return エグゼキュータ
+	 */
+	public static ExecutorService newExecutor() {
+		if(SUPPORTED) {
+			try {
+				return (ExecutorService)NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				// 通常のスレッドで代替する
+			}
+		}
+		return Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "gs2-executor");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * プロセス内で共有されるエグゼキュータを取得。
+	 *
+	 * @return 共有のエグゼキュータ
+	 */
+	public static ExecutorService getExecutor() {
+		ExecutorService instance = executor;
+		if(instance == null) {
+			synchronized (VirtualThreadUtil.class) {
+				instance = executor;
+				if(instance == null) {
+					instance = executor = newExecutor();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * 仮想スレッドから利用してもキャリアスレッドを固定しないHTTPクライアントを生成する。
+	 * 仮想スレッドを利用できる場合は java.net.http で通信するクライアントを、
+	 * それ以外の場合は通常の {@link Gs2HttpClient} を生成します。
+	 *
+	 * @return HTTPクライアント
+	 */
+	public static Gs2HttpClient newHttpClient() {
+		if(SUPPORTED) {
+			try {
+				Transport transport = (Transport)Class.forName("io.gs2.transport.JdkHttpTransport").getConstructor().newInstance();
+				return new TransportHttpClient(transport);
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// java.net.http のトランスポートを含まないビルドでは通常のクライアントを利用する
+			}
+		}
+		return new Gs2HttpClient();
+	}
+
+	private static Method getMethod(Class<?> clazz, String name) {
+		try {
+			return clazz.getMethod(name);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static boolean isAvailable() {
+		if(IS_VIRTUAL == null || NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+			return false;
+		}
+		try {
+			// プレビュー機能として提供されている Java 19, 20 では、有効にしていないと例外になる
+			((ExecutorService)NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null)).shutdown();
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+import java.util.concurrent.Flow;
+
+/**
+ * 一覧を {@link Flow.Publisher} として購読するためのアダプタ。
+ *
+ * Java 11 以降でのみ利用できます。
+ * 要素は購読者が要求した数だけ通知し、次のページは {@link Gs2Paginator#getPrefetch()} の範囲で先読みします。
+ * 購読するたびに最初のページから取得します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2PagePublisher<E> implements Flow.Publisher<E> {
+
+	/** 一覧 */
+	private final Gs2Paginator<E> paginator;
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param paginator 一覧
+	 */
+	public Gs2PagePublisher(Gs2Paginator<E> paginator) {
+		this.paginator = paginator;
+	}
+
+	/**
+	 * 一覧を {@link Flow.Publisher} に変換する。
+	 *
+	 * @param <E> 要素の型
+	 * @param paginator 一覧
+	 * @return パブリッシャー
+	 */
+	public static <E> Gs2PagePublisher<E> of(Gs2Paginator<E> paginator) {
+		return new Gs2PagePublisher<>(paginator);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super E> subscriber) {
+		if(subscriber == null) {
+			throw new NullPointerException("subscriber");
+		}
+		PageSubscription<E> subscription = paginator.subscribe(subscriber::onNext, subscriber::onError, subscriber::onComplete);
+		subscriber.onSubscribe(new Flow.Subscription() {
+
+			@Override
+			public void request(long n) {
+				subscription.request(n);
+			}
+
+			@Override
+			public void cancel() {
+				subscription.cancel();
+			}
+		});
+	}
+}
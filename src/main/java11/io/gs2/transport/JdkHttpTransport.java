@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.transport;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import io.gs2.Gs2Constant;
+
+/**
+ * JDK の HttpClient(java.net.http)で通信するトランスポート。
+ *
+ * Java 11 以降でのみ利用できます。HTTP/2 に対応したエンドポイントとは HTTP/2 で通信します。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class JdkHttpTransport implements Transport {
+
+	/** JDK の HttpClient が設定を許可しないヘッダー */
+	private static final Set<String> RESTRICTED_HEADERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"connection",
+			"content-length",
+			"expect",
+			"host",
+			"upgrade"
+	)));
+
+	/** HTTPクライアント */
+	private final HttpClient client;
+	/** タイムアウト */
+	private final Duration timeout;
+
+	/**
+	 * コンストラクタ。
+	 */
+	public JdkHttpTransport() {
+		this(HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(Gs2Constant.TIMEOUT))
+				.build(), Duration.ofMillis(Gs2Constant.TIMEOUT));
+	}
+
+	/**
+	 * コンストラクタ。
+	 *
+	 * @param client HTTPクライアント
+	 * @param timeout レスポンスのタイムアウト
+	 */
+	public JdkHttpTransport(HttpClient client, Duration timeout) {
+		this.client = client;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri()).timeout(timeout);
+		for(Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			if(!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+				builder.header(header.getKey(), header.getValue());
+			}
+		}
+		builder.method(request.getMethod(), request.getBody() == null
+				? HttpRequest.BodyPublishers.noBody()
+				: HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+		CompletableFuture<HttpResponse<byte[]>> future = client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+		CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+		future.whenComplete((response, e) -> {
+			if(e != null) {
+				Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+				if(cause instanceof HttpTimeoutException) {
+					SocketTimeoutException timeout = new SocketTimeoutException(cause.getMessage());
+					timeout.initCause(cause);
+					cause = timeout;
+				}
+				result.completeExceptionally(cause);
+				return;
+			}
+			Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for(Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+				if(!header.getValue().isEmpty()) {
+					headers.putIfAbsent(header.getKey(), header.getValue().get(0));
+				}
+			}
+			result.complete(new TransportResponse(response.statusCode(), headers, response.body()));
+		});
+		result.whenComplete((response, e) -> {
+			if(result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.gs2.Gs2Constant;
+import io.gs2.http.Gs2HttpClient;
+import io.gs2.transport.JdkHttpTransport;
+import io.gs2.transport.TransportHttpClient;
+
+/**
+ * 仮想スレッドの利用。
+ *
+ * Java 21 以降で実行した場合に利用される実装です。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class VirtualThreadUtil {
+
+	/** 共有のエグゼキュータ */
+	private static volatile ExecutorService executor;
+
+	/**
+	 * 仮想スレッドを利用できるかを取得。
+	 *
+	 * @return 仮想スレッドを利用できる場合は true
+	 */
+	public static boolean isSupported() {
+		return true;
+	}
+
+	/**
+	 * スレッドが仮想スレッドかを取得。
+	 *
+	 * @param thread スレッド
+	 * @return 仮想スレッドの場合は true
+	 */
+	public static boolean isVirtual(Thread thread) {
+		return thread.isVirtual();
+	}
+
+	/**
+	 * タスクごとに仮想スレッドを起動するエグゼキュータを生成する。
+	 *
+	 * @return エグゼキュータ
+	 */
+	public static ExecutorService newExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gs2-virtual-", 0).factory());
+	}
+
+	/**
+	 * プロセス内で共有されるエグゼキュータを取得。
+	 *
+	 * @return 共有のエグゼキュータ
+	 */
+	public static ExecutorService getExecutor() {
+		ExecutorService instance = executor;
+		if(instance == null) {
+			synchronized (VirtualThreadUtil.class) {
+				instance = executor;
+				if(instance == null) {
+					instance = executor = newExecutor();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * 仮想スレッドから利用してもキャリアスレッドを固定しないHTTPクライアントを生成する。
+	 * java.net.http で通信し、レスポンスの後続処理も仮想スレッドで実行します。
+	 *
+	 * @return HTTPクライアント
+	 */
+	public static Gs2HttpClient newHttpClient() {
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(Gs2Constant.TIMEOUT))
+				.executor(getExecutor())
+				.build();
+		return new TransportHttpClient(new JdkHttpTransport(client, Duration.ofMillis(Gs2Constant.TIMEOUT)));
+	}
+}
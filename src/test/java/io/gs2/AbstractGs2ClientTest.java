@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.gs2.metrics.Gs2CallEvent;
+import io.gs2.metrics.Gs2MetricsListener;
+import io.gs2.policy.CircuitBreaker;
+import io.gs2.policy.ConcurrencyLimiter;
+import io.gs2.policy.DefaultRetryPolicy;
+import io.gs2.policy.RequestCoalescer;
+import io.gs2.transport.LoopbackTransport;
+import io.gs2.transport.Transport;
+import io.gs2.transport.TransportResponse;
+
+/**
+ * クライアントのリクエスト実行のテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class AbstractGs2ClientTest {
+
+	/** 正常に応答する */
+	private static final int OK = 0;
+	/** 5xx で応答する */
+	private static final int ERROR = 1;
+	/** 送信時に実行時例外をスローする */
+	private static final int THROW = 2;
+
+	private static Transport transport(AtomicInteger mode) {
+		return request -> {
+			switch(mode.get()) {
+			case OK: return CompletableFuture.completedFuture(LoopbackTransport.json(200, "{}"));
+			case ERROR: return CompletableFuture.<TransportResponse>completedFuture(LoopbackTransport.json(500, "{\"message\":\"error\"}"));
+			default: throw new IllegalStateException("transport failure");
+			}
+		};
+	}
+
+	private static TestClient client(AtomicInteger mode) {
+		return new TestClient()
+				.withTransport(transport(mode))
+				.withRetryPolicy(new DefaultRetryPolicy().withMaxRetries(0));
+	}
+
+	@Test
+	public void runtimeExceptionDoesNotLeaveCircuitHalfOpen() {
+		AtomicInteger mode = new AtomicInteger(ERROR);
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0, 1, false);
+		TestClient client = client(mode).withCircuitBreaker(circuitBreaker);
+
+		assertFalse(client.execute().isSuccess());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(TestClient.SERVICE));
+
+		mode.set(THROW);
+		Gs2Result<Void> result = client.execute();
+		assertFalse(result.isSuccess());
+		assertTrue(result.getException() instanceof IllegalStateException);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(TestClient.SERVICE));
+
+		mode.set(OK);
+		assertTrue(client.execute().isSuccess());
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(TestClient.SERVICE));
+	}
+
+	@Test
+	public void runtimeExceptionDoesNotLeaveCircuitHalfOpenAsync() throws Exception {
+		AtomicInteger mode = new AtomicInteger(ERROR);
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0, 1, false);
+		TestClient client = client(mode).withCircuitBreaker(circuitBreaker);
+
+		assertFalse(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+
+		mode.set(THROW);
+		assertFalse(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(TestClient.SERVICE));
+
+		mode.set(OK);
+		assertTrue(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(TestClient.SERVICE));
+	}
+
+	@Test
+	public void runtimeExceptionReleasesPermit() {
+		AtomicInteger mode = new AtomicInteger(THROW);
+		ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1, 1, 1, 0).withMode(ConcurrencyLimiter.Mode.REJECT);
+		TestClient client = client(mode).withConcurrencyLimiter(concurrencyLimiter);
+
+		for(int i = 0; i < 3; i++) {
+			Gs2Result<Void> result = client.execute();
+			assertTrue(result.getException() instanceof IllegalStateException);
+		}
+		assertEquals(0, concurrencyLimiter.getLimit(TestClient.SERVICE).getInFlight());
+
+		mode.set(OK);
+		assertTrue(client.execute().isSuccess());
+		assertEquals(0, concurrencyLimiter.getLimit(TestClient.SERVICE).getInFlight());
+	}
+
+	@Test
+	public void runtimeExceptionReleasesPermitAsync() throws Exception {
+		AtomicInteger mode = new AtomicInteger(THROW);
+		ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1, 1, 1, 0).withMode(ConcurrencyLimiter.Mode.REJECT);
+		TestClient client = client(mode).withConcurrencyLimiter(concurrencyLimiter);
+
+		for(int i = 0; i < 3; i++) {
+			assertFalse(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		}
+		assertEquals(0, concurrencyLimiter.getLimit(TestClient.SERVICE).getInFlight());
+
+		mode.set(OK);
+		assertTrue(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(0, concurrencyLimiter.getLimit(TestClient.SERVICE).getInFlight());
+	}
+
+	@Test
+	public void listenerExceptionReleasesPermitAndProbe() {
+		AtomicInteger mode = new AtomicInteger(ERROR);
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0, 1, false);
+		ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1, 1, 1, 0).withMode(ConcurrencyLimiter.Mode.REJECT);
+		TestClient client = client(mode)
+				.withCircuitBreaker(circuitBreaker)
+				.withConcurrencyLimiter(concurrencyLimiter)
+				.withMetricsListener(new Gs2MetricsListener() {
+
+					@Override
+					public void onCall(Gs2CallEvent event) {
+					}
+
+					@Override
+					public void onAttempt(Gs2CallEvent event) {
+						throw new IllegalStateException("listener failure");
+					}
+				});
+
+		assertFalse(client.execute().isSuccess());
+		assertFalse(client.execute().isSuccess());
+		assertEquals(0, concurrencyLimiter.getLimit(TestClient.SERVICE).getInFlight());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(TestClient.SERVICE));
+	}
+
+	private static final Gs2MetricsListener THROWING_LISTENER = new Gs2MetricsListener() {
+
+		@Override
+		public void onCall(Gs2CallEvent event) {
+			throw new IllegalStateException("listener failure");
+		}
+
+		@Override
+		public void onAttempt(Gs2CallEvent event) {
+			throw new IllegalStateException("listener failure");
+		}
+	};
+
+	@Test
+	public void listenerExceptionDoesNotChangeResult() {
+		TestClient client = client(new AtomicInteger(OK)).withMetricsListener(THROWING_LISTENER);
+
+		Gs2Result<Void> result = client.execute();
+		assertTrue(result.isSuccess());
+		assertEquals(200, result.getStatusCode());
+	}
+
+	@Test
+	public void listenerExceptionDoesNotChangeResultAsync() throws Exception {
+		AtomicInteger mode = new AtomicInteger(OK);
+		TestClient client = client(mode).withMetricsListener(THROWING_LISTENER);
+
+		assertTrue(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		client.executeValueAsync().get(10, TimeUnit.SECONDS);
+
+		mode.set(ERROR);
+		assertEquals(500, client.executeAsync().get(10, TimeUnit.SECONDS).getStatusCode());
+	}
+
+	@Test
+	public void errorCompletesAsyncFuture() throws Exception {
+		TestClient client = new TestClient().withTransport(request -> {
+			CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+			future.completeExceptionally(new NoClassDefFoundError("transport"));
+			return future;
+		});
+
+		try {
+			client.executeValueAsync().get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof NoClassDefFoundError);
+			return;
+		}
+		throw new AssertionError("future completed normally");
+	}
+
+	@Test
+	public void coalescedCallsCompleteTheirOwnCall() throws Exception {
+		CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+		AtomicInteger sent = new AtomicInteger();
+		RequestCoalescer requestCoalescer = new RequestCoalescer();
+		List<Gs2CallEvent> events = new CopyOnWriteArrayList<>();
+		TestClient client = new TestClient()
+				.withRequestCoalescer(requestCoalescer)
+				.withMetricsListener(events::add)
+				.withTransport(request -> {
+					sent.incrementAndGet();
+					return response;
+				});
+
+		CompletableFuture<Gs2Result<Void>> leader = CompletableFuture.supplyAsync(client::execute);
+		while(requestCoalescer.getInFlight() == 0) {
+			Thread.sleep(1);
+		}
+		CompletableFuture<Gs2Result<Void>> syncFollower = CompletableFuture.supplyAsync(client::execute);
+		CompletableFuture<Gs2Result<Void>> asyncFollower = client.executeAsync();
+		while(requestCoalescer.getCoalescedCount() < 2) {
+			Thread.sleep(1);
+		}
+		response.complete(LoopbackTransport.json(200, "{}"));
+
+		assertTrue(leader.get(10, TimeUnit.SECONDS).isSuccess());
+		assertTrue(syncFollower.get(10, TimeUnit.SECONDS).isSuccess());
+		assertTrue(asyncFollower.get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(1, sent.get());
+		assertEquals(3, events.size());
+		assertEquals(2, events.stream().filter(Gs2CallEvent::isCoalesced).count());
+	}
+
+	@Test
+	public void retryIsNotSentOnSchedulerThread() throws Exception {
+		List<String> threads = new CopyOnWriteArrayList<>();
+		TestClient client = new TestClient()
+				.withRetryPolicy(new DefaultRetryPolicy().withMaxRetries(1).withBaseDelay(1).withMaxDelay(1))
+				.withTransport(request -> {
+					threads.add(Thread.currentThread().getName());
+					int status = threads.size() == 1 ? 504 : 200;
+					return CompletableFuture.completedFuture(LoopbackTransport.json(status, "{}"));
+				});
+
+		assertTrue(client.executeAsync().get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(2, threads.size());
+		assertFalse(threads.contains("gs2-scheduler"));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import io.gs2.model.BasicGs2Credential;
+
+/**
+ * テスト用に protected なメソッドを公開するクライアント。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class TestClient extends AbstractGs2Client<TestClient> {
+
+	/** サービス名 */
+	public static final String SERVICE = "inventory";
+	/** アクセス先URL */
+	public static final String URL = "https://inventory.ap-northeast-1.gs2io.com/inventory/namespace-0001/user/user-0001/item/item-0001";
+
+	public TestClient() {
+		super(new BasicGs2Credential("test-client-id", Base64.getEncoder().encodeToString("test-client-secret".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	public HttpGet get() {
+		return createHttpGet(URL, credential, SERVICE, "Item", "GetItem");
+	}
+
+	public HttpPost post(String body) {
+		return createHttpPost(URL, credential, SERVICE, "Item", "AcquireItem", body);
+	}
+
+	public <U> Gs2Result<U> execute(HttpUriRequest request, Class<U> clazz) {
+		return doRequestForResult(request, clazz);
+	}
+
+	public CompletableFuture<Void> executeValueAsync() {
+		return doRequestAsync(get(), null);
+	}
+
+	public Gs2Result<Void> execute() {
+		return doRequestForResult(get(), null);
+	}
+
+	public CompletableFuture<Gs2Result<Void>> executeAsync() {
+		return doRequestForResultAsync(get(), null);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HTTP/2 で通信するHTTPクライアントのテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2Http2ClientTest {
+
+	/** 並行して送信するリクエスト数 */
+	private static final int CONCURRENCY = 8;
+
+	@Test
+	public void multiplexesConcurrentRequestsOverOneConnection() throws Exception {
+		AtomicInteger connections = new AtomicInteger();
+		AtomicBoolean hold = new AtomicBoolean();
+		List<AsyncServerRequestHandler.ResponseTrigger> pending = new ArrayList<>();
+		HttpAsyncServer server = H2ServerBootstrap.bootstrap()
+				.setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+				.setIOSessionDecorator(session -> {
+					connections.incrementAndGet();
+					return session;
+				})
+				.register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+
+					@Override
+					public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(HttpRequest request, EntityDetails entityDetails, HttpContext context) {
+						return new BasicRequestConsumer<>(entityDetails == null ? null : new StringAsyncEntityConsumer());
+					}
+
+					@Override
+					public void handle(Message<HttpRequest, String> request, ResponseTrigger responseTrigger, HttpContext context) throws HttpException, IOException {
+						// 全てのリクエストが届くまで応答しないため、多重化されていなければタイムアウトする
+						synchronized (pending) {
+							pending.add(responseTrigger);
+							if(hold.get() && pending.size() < CONCURRENCY) {
+								return;
+							}
+							for(ResponseTrigger trigger : pending) {
+								trigger.submitResponse(AsyncResponseBuilder.create(200).setEntity("{}", ContentType.APPLICATION_JSON).build(), context);
+							}
+							pending.clear();
+						}
+					}
+				})
+				.create();
+		server.start();
+		Gs2Http2Client client = new Gs2Http2Client();
+		try {
+			ListenerEndpoint endpoint = server.listen(new InetSocketAddress("127.0.0.1", 0), URIScheme.HTTP).get();
+			String url = "http://127.0.0.1:" + ((InetSocketAddress)endpoint.getAddress()).getPort() + "/";
+
+			// 接続の確立と同時にリクエストが集中すると、コネクションプールが2本目を接続することがあるため先に接続しておく
+			assertEquals(200, client.executeAsync(new HttpGet(url)).get(10, TimeUnit.SECONDS).getStatusLine().getStatusCode());
+			hold.set(true);
+
+			List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+			for(int i = 0; i < CONCURRENCY; i++) {
+				futures.add(client.executeAsync(new HttpGet(url)));
+			}
+			for(CompletableFuture<HttpResponse> future : futures) {
+				HttpResponse response = future.get(10, TimeUnit.SECONDS);
+				assertEquals(200, response.getStatusLine().getStatusCode());
+				assertEquals(2, response.getProtocolVersion().getMajor());
+				assertEquals("{}", EntityUtils.toString(response.getEntity()));
+			}
+			assertEquals(1, connections.get());
+			assertTrue(client.isHttp2(new HttpGet(url)));
+		} finally {
+			client.close();
+			server.close(CloseMode.IMMEDIATE);
+		}
+	}
+
+	@Test
+	public void fallsBackToHttp11() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try(OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		Gs2Http2Client client = new Gs2Http2Client();
+		try {
+			String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+			HttpResponse response = client.executeAsync(new HttpGet(url)).get(10, TimeUnit.SECONDS);
+			assertEquals(200, response.getStatusLine().getStatusCode());
+			assertEquals(HttpVersion.HTTP_1_1, response.getProtocolVersion());
+			assertEquals("{}", EntityUtils.toString(response.getEntity()));
+			assertFalse(client.isHttp2(new HttpGet(url)));
+
+			assertEquals(200, client.execute(new HttpGet(url)).getStatusLine().getStatusCode());
+			assertEquals(2, requests.get());
+		} finally {
+			client.close();
+			server.stop(0);
+		}
+	}
+}
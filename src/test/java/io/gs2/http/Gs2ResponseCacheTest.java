@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.Test;
+
+import io.gs2.Gs2Result;
+import io.gs2.TestClient;
+import io.gs2.transport.LoopbackTransport;
+import io.gs2.transport.TransportResponse;
+
+/**
+ * レスポンスキャッシュのテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2ResponseCacheTest {
+
+	private static final Gs2RequestTarget TARGET = new Gs2RequestTarget("inventory", "Item", "GetItem");
+	private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void doesNotCacheWithoutTtl() {
+		Gs2ResponseCache cache = new Gs2ResponseCache();
+
+		assertFalse(cache.isCacheable(new HttpGet(TestClient.URL), TARGET));
+		cache.put("key", TARGET, BODY, null, null);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void functionTtlOverridesServiceTtl() {
+		Gs2ResponseCache cache = new Gs2ResponseCache()
+				.withTtl("inventory", 1000)
+				.withTtl("inventory", "Item", "GetItem", 0);
+
+		assertFalse(cache.isCacheable(new HttpGet(TestClient.URL), TARGET));
+		assertTrue(cache.isCacheable(new HttpGet(TestClient.URL), new Gs2RequestTarget("inventory", "Item", "DescribeItems")));
+	}
+
+	@Test
+	public void invalidatesOnlyTheService() {
+		Gs2ResponseCache cache = new Gs2ResponseCache().withTtl(1000);
+		Gs2RequestTarget other = new Gs2RequestTarget("account", "Account", "GetAccount");
+		cache.put("inventory", TARGET, BODY, null, null);
+		cache.put("account", other, BODY, null, null);
+
+		cache.invalidateService("inventory");
+		assertNull(cache.get("inventory"));
+		assertNotNull(cache.get("account"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		Gs2ResponseCache cache = new Gs2ResponseCache(2, 1024).withTtl(1000);
+		cache.put("a", TARGET, BODY, null, null);
+		cache.put("b", TARGET, BODY, null, null);
+		cache.get("a");
+		cache.put("c", TARGET, BODY, null, null);
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void writeInvalidatesCachedRead() {
+		AtomicInteger reads = new AtomicInteger();
+		TestClient client = new TestClient()
+				.withResponseCache(new Gs2ResponseCache().withTtl("inventory", 60000))
+				.withTransport(request -> {
+					if("GET".equals(request.getMethod())) {
+						reads.incrementAndGet();
+					}
+					return CompletableFuture.completedFuture(LoopbackTransport.json(200, "{}"));
+				});
+
+		assertTrue(client.execute(client.get(), Object.class).isSuccess());
+		assertTrue(client.execute(client.get(), Object.class).isCached());
+		assertEquals(1, reads.get());
+
+		assertTrue(client.execute(client.post("{}"), Object.class).isSuccess());
+		assertFalse(client.execute(client.get(), Object.class).isCached());
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void doesNotStoreResponseReadBeforeInvalidation() {
+		Gs2ResponseCache cache = new Gs2ResponseCache().withTtl(1000);
+		long generation = cache.getGeneration("inventory");
+
+		cache.invalidateService("inventory");
+		cache.put("key", TARGET, BODY, null, null, generation);
+		cache.putNotFound("key", TARGET, "not found", generation);
+		assertEquals(0, cache.size());
+
+		generation = cache.getGeneration("inventory");
+		cache.invalidateAll();
+		cache.put("key", TARGET, BODY, null, null, generation);
+		assertEquals(0, cache.size());
+
+		cache.put("key", TARGET, BODY, null, null, cache.getGeneration("inventory"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void inFlightReadIsNotCachedAfterWrite() throws Exception {
+		AtomicInteger reads = new AtomicInteger();
+		CompletableFuture<TransportResponse> pending = new CompletableFuture<>();
+		Gs2ResponseCache cache = new Gs2ResponseCache().withTtl("inventory", 60000);
+		TestClient client = new TestClient()
+				.withResponseCache(cache)
+				.withTransport(request -> {
+					if("GET".equals(request.getMethod()) && reads.incrementAndGet() == 1) {
+						return pending;
+					}
+					return CompletableFuture.completedFuture(LoopbackTransport.json(200, "{}"));
+				});
+
+		CompletableFuture<Gs2Result<Object>> read = CompletableFuture.supplyAsync(() -> client.execute(client.get(), Object.class));
+		while(reads.get() == 0) {
+			Thread.sleep(1);
+		}
+		assertTrue(client.execute(client.post("{}"), Object.class).isSuccess());
+		pending.complete(LoopbackTransport.json(200, "{}"));
+
+		assertTrue(read.get(10, TimeUnit.SECONDS).isSuccess());
+		assertEquals(0, cache.size());
+		assertFalse(client.execute(client.get(), Object.class).isCached());
+		assertEquals(2, reads.get());
+	}
+}
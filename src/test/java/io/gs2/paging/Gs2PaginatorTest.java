@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.paging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import io.gs2.paging.Gs2Paginator.Page;
+import io.gs2.paging.Gs2Paginator.PageFetcher;
+
+/**
+ * 一覧の取得のテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class Gs2PaginatorTest {
+
+	/**
+	 * 呼び出し側が応答を返すまでページの取得を完了しない {@link PageFetcher}
+	 */
+	private static final class StubFetcher implements PageFetcher<Integer> {
+
+		/** 要求されたページトークン */
+		final List<String> tokens = new CopyOnWriteArrayList<>();
+		/** 応答していないページの取得 */
+		final List<CompletableFuture<Page<Integer>>> pending = new CopyOnWriteArrayList<>();
+
+		@Override
+		public CompletableFuture<Page<Integer>> fetch(String pageToken) {
+			tokens.add(pageToken);
+			CompletableFuture<Page<Integer>> future = new CompletableFuture<>();
+			pending.add(future);
+			return future;
+		}
+
+		void respond(String nextPageToken, Integer... items) {
+			pending.remove(0).complete(new Page<>(Arrays.asList(items), nextPageToken));
+		}
+
+		void fail(Throwable e) {
+			pending.remove(0).completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * 指定したページを同期的に返す {@link PageFetcher} を作成する。
+	 * ページトークンはページの番号です。
+	 */
+	@SafeVarargs
+	private static PageFetcher<Integer> pages(List<Integer>... pages) {
+		return pageToken -> {
+			int index = pageToken == null ? 0 : Integer.parseInt(pageToken);
+			String next = index + 1 < pages.length ? String.valueOf(index + 1) : null;
+			return CompletableFuture.completedFuture(new Page<>(pages[index], next));
+		};
+	}
+
+	@Test
+	public void iteratesAllPages() {
+		Gs2Paginator<Integer> paginator = new Gs2Paginator<>(pages(
+				Arrays.asList(1, 2),
+				Collections.<Integer>emptyList(),
+				Arrays.asList(3, null, 4),
+				Arrays.asList(5)));
+
+		List<Integer> items = new ArrayList<>();
+		for(Integer item : paginator) {
+			items.add(item);
+		}
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), items);
+		assertEquals(items, paginator.stream().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void fillRequestsNextPageOnlyWhenBufferIsBelowPrefetch() {
+		StubFetcher fetcher = new StubFetcher();
+		PageBuffer<Integer> buffer = new PageBuffer<>(fetcher, 0, () -> {});
+
+		assertNull(buffer.poll());
+		assertEquals(Collections.singletonList(null), fetcher.tokens);
+
+		fetcher.respond("page-2", 1, 2);
+		assertEquals(1, fetcher.tokens.size());
+		assertEquals(Integer.valueOf(1), buffer.poll());
+		assertEquals(1, fetcher.tokens.size());
+		assertEquals(Integer.valueOf(2), buffer.poll());
+		assertEquals(Arrays.asList(null, "page-2"), fetcher.tokens);
+
+		fetcher.respond(null, 3);
+		assertFalse(buffer.isTerminated());
+		assertEquals(Integer.valueOf(3), buffer.poll());
+		assertTrue(buffer.isTerminated());
+		assertEquals(2, fetcher.tokens.size());
+	}
+
+	@Test
+	public void fillPrefetchesUpToLimit() {
+		StubFetcher fetcher = new StubFetcher();
+		PageBuffer<Integer> buffer = new PageBuffer<>(fetcher, 1, () -> {});
+
+		buffer.poll();
+		fetcher.respond("page-2", 1);
+		assertEquals(Arrays.asList(null, "page-2"), fetcher.tokens);
+		fetcher.respond("page-3", 2);
+		assertEquals(2, fetcher.tokens.size());
+
+		assertEquals(Integer.valueOf(1), buffer.poll());
+		assertEquals(Arrays.asList(null, "page-2", "page-3"), fetcher.tokens);
+	}
+
+	@Test
+	public void hasNextThrowsFetchError() {
+		IllegalStateException error = new IllegalStateException("fetch failed");
+		Iterator<Integer> iterator = new Gs2Paginator<Integer>(pageToken -> {
+			CompletableFuture<Page<Integer>> future = new CompletableFuture<>();
+			if(pageToken == null) {
+				future.complete(new Page<>(Arrays.asList(1), "page-2"));
+			} else {
+				future.completeExceptionally(error);
+			}
+			return future;
+		}).iterator();
+
+		assertEquals(Integer.valueOf(1), iterator.next());
+		try {
+			iterator.hasNext();
+			fail();
+		} catch (IllegalStateException e) {
+			assertSame(error, e);
+		}
+	}
+
+	@Test
+	public void closeCancelsPrefetch() {
+		CompletableFuture<Page<Integer>> prefetch = new CompletableFuture<>();
+		Gs2Paginator.PageIterator<Integer> iterator = new Gs2Paginator<Integer>(pageToken -> pageToken == null
+				? CompletableFuture.completedFuture(new Page<>(Arrays.asList(1, 2), "page-2"))
+				: prefetch).withPrefetch(1).iterator();
+
+		assertEquals(Integer.valueOf(1), iterator.next());
+		iterator.close();
+		assertTrue(prefetch.isCancelled());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void subscriptionDeliversOnlyRequestedItems() {
+		List<Integer> items = new CopyOnWriteArrayList<>();
+		AtomicInteger completed = new AtomicInteger();
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(pages(Arrays.asList(1, 2, 3), Arrays.asList(4)))
+				.subscribe(items::add, e -> fail(e.toString()), completed::incrementAndGet);
+
+		subscription.request(2);
+		assertEquals(Arrays.asList(1, 2), items);
+		assertEquals(0, completed.get());
+
+		subscription.request(Long.MAX_VALUE);
+		subscription.request(Long.MAX_VALUE);
+		assertEquals(Arrays.asList(1, 2, 3, 4), items);
+		assertEquals(1, completed.get());
+	}
+
+	@Test
+	public void subscriptionDrainsPagesAsTheyArrive() {
+		StubFetcher fetcher = new StubFetcher();
+		List<Integer> items = new CopyOnWriteArrayList<>();
+		AtomicInteger completed = new AtomicInteger();
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(fetcher).withPrefetch(0)
+				.subscribe(items::add, e -> fail(e.toString()), completed::incrementAndGet);
+
+		subscription.request(3);
+		fetcher.respond("page-2", 1, 2);
+		assertEquals(Arrays.asList(1, 2), items);
+		fetcher.respond(null, 3, 4);
+		assertEquals(Arrays.asList(1, 2, 3), items);
+		assertEquals(0, completed.get());
+
+		subscription.request(1);
+		assertEquals(Arrays.asList(1, 2, 3, 4), items);
+		assertEquals(1, completed.get());
+	}
+
+	@Test
+	public void subscriptionAllowsRequestFromOnNext() {
+		List<Integer> items = new CopyOnWriteArrayList<>();
+		AtomicInteger completed = new AtomicInteger();
+		AtomicReference<PageSubscription<Integer>> subscription = new AtomicReference<>();
+		subscription.set(new Gs2Paginator<>(pages(Arrays.asList(1, 2), Arrays.asList(3, 4))).subscribe(item -> {
+			items.add(item);
+			subscription.get().request(1);
+		}, e -> fail(e.toString()), completed::incrementAndGet));
+
+		subscription.get().request(1);
+		assertEquals(Arrays.asList(1, 2, 3, 4), items);
+		assertEquals(1, completed.get());
+	}
+
+	@Test
+	public void subscriptionReportsFetchErrorOnce() {
+		StubFetcher fetcher = new StubFetcher();
+		List<Integer> items = new CopyOnWriteArrayList<>();
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(fetcher).withPrefetch(0)
+				.subscribe(items::add, errors::add, () -> fail("completed"));
+
+		subscription.request(10);
+		fetcher.respond("page-2", 1);
+		IllegalStateException error = new IllegalStateException("fetch failed");
+		fetcher.fail(error);
+		subscription.request(10);
+
+		assertEquals(Collections.singletonList(1), items);
+		assertArrayEquals(new Throwable[] { error }, errors.toArray());
+	}
+
+	@Test
+	public void subscriptionStopsWhenOnNextThrows() {
+		StubFetcher fetcher = new StubFetcher();
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		IllegalStateException error = new IllegalStateException("subscriber failed");
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(fetcher).withPrefetch(1)
+				.subscribe(item -> { throw error; }, errors::add, () -> fail("completed"));
+
+		subscription.request(10);
+		fetcher.respond("page-2", 1, 2);
+
+		assertArrayEquals(new Throwable[] { error }, errors.toArray());
+		assertTrue(fetcher.pending.get(0).isCancelled());
+	}
+
+	@Test
+	public void subscriptionRejectsNonPositiveRequest() {
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(pages(Arrays.asList(1)))
+				.subscribe(item -> fail("notified"), errors::add, () -> fail("completed"));
+
+		subscription.request(0);
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0) instanceof IllegalArgumentException);
+	}
+
+	@Test
+	public void cancelStopsNotification() {
+		StubFetcher fetcher = new StubFetcher();
+		List<Integer> items = new CopyOnWriteArrayList<>();
+		PageSubscription<Integer> subscription = new Gs2Paginator<>(fetcher)
+				.subscribe(items::add, e -> fail(e.toString()), () -> fail("completed"));
+
+		subscription.request(10);
+		CompletableFuture<Page<Integer>> first = fetcher.pending.get(0);
+		subscription.cancel();
+		assertTrue(first.isCancelled());
+		assertTrue(items.isEmpty());
+	}
+}
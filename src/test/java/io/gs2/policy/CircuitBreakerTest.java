@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.gs2.http.Gs2RequestTarget;
+import io.gs2.policy.CircuitBreaker.Circuit;
+import io.gs2.policy.CircuitBreaker.Permit;
+import io.gs2.policy.CircuitBreaker.State;
+
+/**
+ * サーキットブレーカーのテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class CircuitBreakerTest {
+
+	private static final Gs2RequestTarget TARGET = new Gs2RequestTarget("inventory", "Item", "GetItem");
+
+	private static Circuit open(int halfOpenProbes) {
+		Circuit circuit = new CircuitBreaker(1, 0, halfOpenProbes, false).getCircuit(TARGET);
+		circuit.onFailure(circuit.tryAcquire());
+		return circuit;
+	}
+
+	@Test
+	public void opensAfterConsecutiveFailures() {
+		Circuit circuit = new CircuitBreaker(2, 60000, 1, false).getCircuit(TARGET);
+
+		circuit.onFailure(circuit.tryAcquire());
+		assertEquals(State.CLOSED, circuit.getState());
+		circuit.onFailure(circuit.tryAcquire());
+		assertEquals(State.OPEN, circuit.getState());
+		assertNull(circuit.tryAcquire());
+	}
+
+	@Test
+	public void successResetsConsecutiveFailures() {
+		Circuit circuit = new CircuitBreaker(2, 60000, 1, false).getCircuit(TARGET);
+
+		circuit.onFailure(circuit.tryAcquire());
+		circuit.onSuccess(circuit.tryAcquire());
+		circuit.onFailure(circuit.tryAcquire());
+		assertEquals(State.CLOSED, circuit.getState());
+	}
+
+	@Test
+	public void halfOpenAllowsLimitedProbes() {
+		Circuit circuit = open(1);
+
+		Permit probe = circuit.tryAcquire();
+		assertTrue(probe.isProbe());
+		assertEquals(State.HALF_OPEN, circuit.getState());
+		assertNull(circuit.tryAcquire());
+		circuit.onSuccess(probe);
+		assertEquals(State.CLOSED, circuit.getState());
+	}
+
+	@Test
+	public void failedProbeReopens() {
+		Circuit circuit = open(1);
+
+		circuit.onFailure(circuit.tryAcquire());
+		assertEquals(State.OPEN, circuit.getState());
+	}
+
+	@Test
+	public void releaseReturnsProbe() {
+		Circuit circuit = open(1);
+
+		circuit.release(circuit.tryAcquire());
+		assertEquals(State.HALF_OPEN, circuit.getState());
+		assertNotNull(circuit.tryAcquire());
+	}
+
+	@Test
+	public void staleSuccessDoesNotCloseHalfOpenCircuit() {
+		Circuit circuit = new CircuitBreaker(1, 0, 1, false).getCircuit(TARGET);
+		Permit stale = circuit.tryAcquire();
+		circuit.onFailure(circuit.tryAcquire());
+
+		Permit probe = circuit.tryAcquire();
+		circuit.onSuccess(stale);
+		assertEquals(State.HALF_OPEN, circuit.getState());
+		assertNull(circuit.tryAcquire());
+		circuit.onSuccess(probe);
+		assertEquals(State.CLOSED, circuit.getState());
+	}
+
+	@Test
+	public void staleFailureDoesNotReopenHalfOpenCircuit() {
+		Circuit circuit = new CircuitBreaker(1, 0, 1, false).getCircuit(TARGET);
+		Permit stale = circuit.tryAcquire();
+		circuit.onFailure(circuit.tryAcquire());
+
+		Permit probe = circuit.tryAcquire();
+		circuit.onFailure(stale);
+		circuit.release(stale);
+		assertEquals(State.HALF_OPEN, circuit.getState());
+		assertNull(circuit.tryAcquire());
+		circuit.onSuccess(probe);
+		assertEquals(State.CLOSED, circuit.getState());
+	}
+
+	@Test
+	public void probeFromEarlierHalfOpenIsIgnored() {
+		Circuit circuit = open(2);
+		Permit first = circuit.tryAcquire();
+		circuit.onFailure(circuit.tryAcquire());
+
+		Permit probe = circuit.tryAcquire();
+		circuit.onSuccess(first);
+		circuit.onSuccess(probe);
+		assertEquals(State.HALF_OPEN, circuit.getState());
+	}
+
+	@Test
+	public void circuitsArePerService() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, 60000, 1, false);
+		Circuit circuit = circuitBreaker.getCircuit(TARGET);
+		circuit.onFailure(circuit.tryAcquire());
+
+		assertEquals(State.OPEN, circuitBreaker.getState("inventory"));
+		assertEquals(State.CLOSED, circuitBreaker.getState("account"));
+		assertNotNull(circuitBreaker.getCircuit(new Gs2RequestTarget("account", "Account", "GetAccount")).tryAcquire());
+	}
+}
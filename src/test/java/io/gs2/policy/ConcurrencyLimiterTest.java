@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.gs2.exception.ConcurrencyLimitExceededException;
+import io.gs2.policy.ConcurrencyLimiter.Limit;
+
+/**
+ * 同時実行数の制限のテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class ConcurrencyLimiterTest {
+
+	private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	public void rejectsOverLimit() {
+		Limit limit = new ConcurrencyLimiter(1, 1, 1, 0).withMode(ConcurrencyLimiter.Mode.REJECT).getLimit("inventory");
+
+		assertTrue(limit.acquire(0).isDone());
+		CompletableFuture<Void> rejected = limit.acquire(0);
+		assertTrue(rejected.isCompletedExceptionally());
+		limit.release(LATENCY, false);
+		assertEquals(0, limit.getInFlight());
+		assertFalse(limit.acquire(0).isCompletedExceptionally());
+	}
+
+	@Test
+	public void grantsQueuedRequestOnRelease() throws Exception {
+		Limit limit = new ConcurrencyLimiter(1, 1, 1, 1).getLimit("inventory");
+
+		limit.acquire(0).get();
+		CompletableFuture<Void> waiting = limit.acquire(0);
+		assertFalse(waiting.isDone());
+		assertEquals(1, limit.getQueueSize());
+
+		limit.release(LATENCY, false);
+		waiting.get(1, TimeUnit.SECONDS);
+		assertEquals(1, limit.getInFlight());
+		assertEquals(0, limit.getQueueSize());
+		limit.release();
+		assertEquals(0, limit.getInFlight());
+	}
+
+	@Test
+	public void rejectsWhenQueueIsFull() throws Exception {
+		Limit limit = new ConcurrencyLimiter(1, 1, 1, 1).getLimit("inventory");
+
+		limit.acquire(0).get();
+		limit.acquire(0);
+		try {
+			limit.acquire(0).get();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ConcurrencyLimitExceededException);
+			return;
+		}
+		throw new AssertionError("queue overflow was not rejected");
+	}
+
+	@Test
+	public void shedsLowestPriority() throws Exception {
+		Limit limit = new ConcurrencyLimiter(1, 1, 1, 1).withMode(ConcurrencyLimiter.Mode.SHED_LOWEST_PRIORITY).getLimit("inventory");
+
+		limit.acquire(0).get();
+		CompletableFuture<Void> low = limit.acquire(0);
+		CompletableFuture<Void> high = limit.acquire(10);
+		assertTrue(low.isCompletedExceptionally());
+		assertFalse(high.isDone());
+
+		limit.release(LATENCY, false);
+		high.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void cancelReleasesGrantedPermit() {
+		Limit limit = new ConcurrencyLimiter(1, 1, 1, 0).getLimit("inventory");
+
+		CompletableFuture<Void> permit = limit.acquire(0);
+		limit.cancel(permit);
+		assertEquals(0, limit.getInFlight());
+	}
+
+	@Test
+	public void increasesWhileSaturatedAndDecreasesOnDrop() {
+		Limit limit = new ConcurrencyLimiter(10, 1, 20, 0).getLimit("inventory");
+
+		for(int i = 0; i < 10; i++) {
+			assertTrue(limit.acquire(0).isDone());
+		}
+		for(int i = 0; i < 30; i++) {
+			limit.release(LATENCY, false);
+			limit.acquire(0);
+		}
+		int increased = limit.getLimit();
+		assertTrue(increased > 10);
+
+		limit.release(LATENCY, true);
+		assertTrue(limit.getLimit() < increased);
+	}
+
+	@Test
+	public void neverDecreasesBelowMinimum() {
+		Limit limit = new ConcurrencyLimiter(2, 2, 4, 0).getLimit("inventory");
+
+		for(int i = 0; i < 10; i++) {
+			limit.acquire(0);
+			limit.release(LATENCY, true);
+		}
+		assertEquals(2, limit.getLimit());
+	}
+}
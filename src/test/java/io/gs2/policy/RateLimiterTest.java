@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.gs2.model.BasicGs2Credential;
+import io.gs2.model.OnetimeTokenGs2Credential;
+
+/**
+ * レート制限のテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class RateLimiterTest {
+
+	@Test
+	public void credentialsWithSameClientIdShareBucket() {
+		RateLimiter rateLimiter = new RateLimiter(1).withMode(RateLimiter.Mode.REJECT);
+
+		assertEquals(0, rateLimiter.reserve(new BasicGs2Credential("client", "secret"), "inventory"));
+		assertTrue(rateLimiter.reserve(new BasicGs2Credential("client", "secret"), "inventory") < 0);
+		assertEquals(1, rateLimiter.getCredentialCount());
+	}
+
+	@Test
+	public void boundsNumberOfCredentials() {
+		RateLimiter rateLimiter = new RateLimiter(1).withMaxCredentials(2);
+
+		for(int i = 0; i < 10; i++) {
+			rateLimiter.reserve(new OnetimeTokenGs2Credential("token-" + i), "inventory");
+		}
+		assertEquals(2, rateLimiter.getCredentialCount());
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * マイクロバッチのテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class MicroBatcherTest {
+
+	@Test
+	public void flushesWhenBatchIsFull() throws Exception {
+		List<List<Integer>> batches = new ArrayList<>();
+		MicroBatcher<Integer, Integer> batcher = new MicroBatcher<Integer, Integer>((key, items) -> {
+			batches.add(new ArrayList<>(items));
+			return MicroBatcher.<Integer, Integer>individually(item -> CompletableFuture.completedFuture(item * 2)).execute(key, items);
+		}).withMaxBatchSize(2).withWindow(60000);
+
+		CompletableFuture<Integer> first = batcher.submit("inventory", 1);
+		CompletableFuture<Integer> second = batcher.submit("inventory", 2);
+
+		assertEquals(Integer.valueOf(2), first.get(1, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(4), second.get(1, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList(Arrays.asList(1, 2)), batches);
+		assertEquals(0, batcher.getPendingBatches());
+	}
+
+	@Test
+	public void flushesAfterWindowOffTheScheduler() throws Exception {
+		AtomicReference<String> thread = new AtomicReference<>();
+		MicroBatcher<Integer, Integer> batcher = new MicroBatcher<Integer, Integer>((key, items) -> {
+			thread.set(Thread.currentThread().getName());
+			return MicroBatcher.<Integer, Integer>individually(CompletableFuture::completedFuture).execute(key, items);
+		}).withWindow(10);
+
+		assertEquals(Integer.valueOf(1), batcher.submit("inventory", 1).get(10, TimeUnit.SECONDS));
+		assertNotEquals("gs2-scheduler", thread.get());
+	}
+
+	@Test
+	public void failsEveryItemWhenHandlerThrows() throws Exception {
+		MicroBatcher<Integer, Integer> batcher = new MicroBatcher<Integer, Integer>((key, items) -> {
+			throw new IllegalStateException("batch failure");
+		}).withWindow(0);
+
+		try {
+			batcher.submit("inventory", 1).get(1, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+			return;
+		}
+		throw new AssertionError("future completed normally");
+	}
+}
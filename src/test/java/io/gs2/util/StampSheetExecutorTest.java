@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Game Server Services, Inc. or its affiliates. All Rights
+ * Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.gs2.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.gs2.model.StampSheet;
+import io.gs2.model.StampTask;
+import io.gs2.util.StampSheetExecutor.SheetResult;
+
+/**
+ * スタンプシートの実行のテスト。
+ *
+ * @author Game Server Services, Inc.
+ *
+ */
+public class StampSheetExecutorTest {
+
+	private static StampTask task(String action, String body) {
+		StampTask task = new StampTask();
+		task.setAction(action);
+		task.setTask(body);
+		return task;
+	}
+
+	private static StampSheet sheet(StampTask... tasks) {
+		StampSheet sheet = new StampSheet();
+		sheet.setTransactionId("transaction-0001");
+		sheet.setTasks(Arrays.asList(tasks));
+		return sheet;
+	}
+
+	@Test
+	public void executesSheetAfterAllTasks() throws Exception {
+		SheetResult result = new StampSheetExecutor()
+				.withAction("consume", (transactionId, task) -> CompletableFuture.completedFuture(task.getTask()))
+				.withSheetHandler((sheet, tasks) -> CompletableFuture.completedFuture(tasks.size()))
+				.execute(sheet(task("consume", "a"), task("consume", "b")))
+				.get(10, TimeUnit.SECONDS);
+
+		assertTrue(result.isSuccess());
+		assertTrue(result.isSheetExecuted());
+		assertEquals(2, result.getValue());
+		assertEquals("transaction-0001", result.getTransactionId());
+		assertEquals("b", result.getTasks().get(1).getValue());
+	}
+
+	@Test
+	public void nullActionBecomesFailedTask() throws Exception {
+		SheetResult result = new StampSheetExecutor()
+				.withAction("consume", (transactionId, task) -> CompletableFuture.completedFuture(task.getTask()))
+				.withBatchAction("acquire", (transactionId, action, tasks) -> new ArrayList<>())
+				.withSheetHandler((sheet, tasks) -> CompletableFuture.completedFuture(null))
+				.execute(sheet(task("consume", "a"), task(null, "b")))
+				.get(10, TimeUnit.SECONDS);
+
+		assertFalse(result.isSuccess());
+		assertFalse(result.isSheetExecuted());
+		assertTrue(result.getTasks().get(0).isSuccess());
+		assertTrue(result.getTasks().get(1).getException() instanceof IllegalStateException);
+	}
+
+	@Test
+	public void batchesSameAction() throws Exception {
+		List<Integer> batchSizes = new ArrayList<>();
+		SheetResult result = new StampSheetExecutor()
+				.withBatchAction("acquire", (transactionId, action, tasks) -> {
+					batchSizes.add(tasks.size());
+					List<CompletableFuture<String>> results = new ArrayList<>();
+					for(StampTask task : tasks) {
+						results.add(CompletableFuture.completedFuture(task.getTask()));
+					}
+					return results;
+				})
+				.withMaxBatchSize(2)
+				.execute(sheet(task("acquire", "a"), task("acquire", "b"), task("acquire", "c")))
+				.get(10, TimeUnit.SECONDS);
+
+		assertTrue(result.isSuccess());
+		assertEquals(Arrays.asList(2, 1), batchSizes);
+		assertEquals("c", result.getTasks().get(2).getValue());
+	}
+
+	@Test
+	public void orderedTasksStopAfterFailure() throws Exception {
+		SheetResult result = new StampSheetExecutor()
+				.withAction("consume", (transactionId, task) -> {
+					CompletableFuture<Object> future = new CompletableFuture<>();
+					if("fail".equals(task.getTask())) {
+						future.completeExceptionally(new IllegalStateException("failed"));
+					} else {
+						future.complete(task.getTask());
+					}
+					return future;
+				})
+				.withOrderingKey(task -> "user-0001")
+				.execute(sheet(task("consume", "fail"), task("consume", "b")))
+				.get(10, TimeUnit.SECONDS);
+
+		assertFalse(result.isSuccess());
+		assertTrue(result.getTasks().get(0).getException() instanceof IllegalStateException);
+		assertTrue(result.getTasks().get(1).getException() instanceof CancellationException);
+	}
+}